@@ -3,18 +3,51 @@ package org.example.apcproject3.aspect;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.example.apcproject3.entity.Booking;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+// Times every controller and service call into MethodMetrics. The hot path
+// only reads the clock and bumps a histogram bucket; nothing is formatted or
+// logged unless a call is slow, fails, or is picked for argument sampling.
 @Aspect
 @Component
 public class LoggingAspect {
 
     private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
 
+    private static final int MAX_ARG_LENGTH = 100;
+
+    @Autowired
+    private MethodMetrics methodMetrics;
+
+    // Calls slower than this are logged as warnings
+    @Value("${logging.aspect.slow-ms:1000}")
+    private long slowMs = 1000;
+
+    // Argument logging is off unless enabled; then a sample of calls is logged
+    // at DEBUG, at most max-per-second lines per second
+    @Value("${logging.aspect.args.enabled:false}")
+    private boolean argsEnabled;
+
+    @Value("${logging.aspect.args.sample-rate:0.01}")
+    private double argsSampleRate = 0.01;
+
+    @Value("${logging.aspect.args.max-per-second:10}")
+    private int argsMaxPerSecond = 10;
+
+    private final AtomicLong argsWindow = new AtomicLong();
+    private final AtomicInteger argsInWindow = new AtomicInteger();
+
     // Pointcut for all controller methods
     @Pointcut("execution(* org.example.apcproject3.controller.*.*(..))")
     public void controllerMethods() {}
@@ -23,30 +56,27 @@ public class LoggingAspect {
     @Pointcut("execution(* org.example.apcproject3.service.*.*(..))")
     public void serviceMethods() {}
 
-    // Log method entry and exit
+    // Record method latency
     @Around("controllerMethods() || serviceMethods()")
     public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
-
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-
-        logger.info("==> {}::{} - Started with args: {}",
-                   className, methodName, Arrays.toString(joinPoint.getArgs()));
-
+        long startTime = System.nanoTime();
+        boolean failed = true;
         try {
             Object result = joinPoint.proceed();
-            long duration = System.currentTimeMillis() - startTime;
-
-            logger.info("<== {}::{} - Completed in {}ms",
-                       className, methodName, duration);
-
+            failed = false;
             return result;
-        } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            logger.error("!!! {}::{} - Failed after {}ms with error: {}",
-                        className, methodName, duration, e.getMessage());
-            throw e;
+        } finally {
+            long duration = System.nanoTime() - startTime;
+            MethodMetrics.MethodStats stats = methodMetrics.statsFor(
+                    ((MethodSignature) joinPoint.getSignature()).getMethod(), AopUtils.getTargetClass(joinPoint.getTarget()));
+            stats.record(duration, failed);
+
+            if (duration >= slowMs * 1_000_000) {
+                logger.warn("Slow call {} took {}ms", stats.getName(), duration / 1_000_000);
+            }
+            if (argsEnabled && logger.isDebugEnabled() && shouldSampleArgs()) {
+                logger.debug("{} args: {} ({}us)", stats.getName(), describeArgs(joinPoint.getArgs()), duration / 1000);
+            }
         }
     }
 
@@ -62,15 +92,47 @@ public class LoggingAspect {
     }
 
     // Monitor booking operations specifically
-    @Before("execution(* org.example.apcproject3.service.BookingService.createBooking(..))")
-    public void beforeBookingCreation(JoinPoint joinPoint) {
-        logger.info("📅 New booking creation attempt - Args: {}",
-                   Arrays.toString(joinPoint.getArgs()));
-    }
-
     @AfterReturning(pointcut = "execution(* org.example.apcproject3.service.BookingService.createBooking(..))",
                    returning = "booking")
     public void afterBookingCreation(Object booking) {
-        logger.info("✅ Booking created successfully: {}", booking);
+        if (booking instanceof Booking) {
+            logger.info("Booking {} created", ((Booking) booking).getId());
+        }
+    }
+
+    // Sampled, and capped per second so a traffic spike cannot turn into a log spike
+    private boolean shouldSampleArgs() {
+        if (ThreadLocalRandom.current().nextDouble() >= argsSampleRate) {
+            return false;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long window = argsWindow.get();
+        if (window != second && argsWindow.compareAndSet(window, second)) {
+            argsInWindow.set(0);
+        }
+        return argsInWindow.incrementAndGet() <= argsMaxPerSecond;
+    }
+
+    // Simple values are printed; anything else only by type, so entities are
+    // never rendered and lazy associations never loaded
+    private static String describeArgs(Object[] args) {
+        StringBuilder description = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                description.append(", ");
+            }
+            Object arg = args[i];
+            if (arg == null || arg instanceof Number || arg instanceof Boolean || arg instanceof Enum) {
+                description.append(arg);
+            } else if (arg instanceof CharSequence) {
+                String text = arg.toString();
+                description.append('"')
+                        .append(text.length() > MAX_ARG_LENGTH ? text.substring(0, MAX_ARG_LENGTH) + "..." : text)
+                        .append('"');
+            } else {
+                description.append(arg.getClass().getSimpleName());
+            }
+        }
+        return description.append(']').toString();
     }
 }
@@ -0,0 +1,59 @@
+package org.example.apcproject3.aspect;
+
+import org.example.apcproject3.metrics.Timer;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Per-method latency histograms and error counts recorded by LoggingAspect
+@Component
+public class MethodMetrics {
+
+    private final ConcurrentMap<Method, MethodStats> methods = new ConcurrentHashMap<>();
+
+    public MethodStats statsFor(Method method, Class<?> targetClass) {
+        MethodStats stats = methods.get(method);
+        if (stats == null) {
+            stats = methods.computeIfAbsent(method,
+                    key -> new MethodStats(targetClass.getSimpleName() + "." + key.getName()));
+        }
+        return stats;
+    }
+
+    // Methods ordered by total time spent in them, most expensive first
+    public List<Map<String, Object>> getSnapshot(int limit) {
+        List<MethodStats> all = new ArrayList<>(methods.values());
+        all.sort(Comparator.comparingDouble((MethodStats stats) -> stats.timer.getTotalMs()).reversed());
+
+        List<Map<String, Object>> snapshot = new ArrayList<>();
+        for (MethodStats stats : all.subList(0, Math.min(limit, all.size()))) {
+            Map<String, Object> row = stats.timer.toMap();
+            row.put("method", stats.name);
+            snapshot.add(row);
+        }
+        return snapshot;
+    }
+
+    public static class MethodStats {
+        private final String name;
+        private final Timer timer = new Timer();
+
+        MethodStats(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        void record(long nanos, boolean failed) {
+            timer.record(nanos, failed);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.apcproject3.config;
+
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+import java.util.concurrent.Executor;
+
+// Executors for background work. Blocking database calls get their own pool
+// so they never run on (and starve) the common ForkJoinPool used by parallel
+// streams and default CompletableFuture stages. In virtual execution mode the
+// pools run virtual threads but keep their bounds, which then only cap how
+// much work competes for database connections.
+@Configuration
+public class AsyncConfig implements AsyncConfigurer {
+
+    @Autowired
+    private ExecutionMode executionMode;
+
+    @Value("${async.db.core-size:4}")
+    private int dbCoreSize;
+
+    @Value("${async.db.max-size:8}")
+    private int dbMaxSize;
+
+    @Value("${async.db.queue-capacity:100}")
+    private int dbQueueCapacity;
+
+    @Value("${async.task.core-size:2}")
+    private int taskCoreSize;
+
+    @Value("${async.task.max-size:4}")
+    private int taskMaxSize;
+
+    @Value("${async.task.queue-capacity:100}")
+    private int taskQueueCapacity;
+
+    // For CompletableFuture stages that run JPA queries
+    @Bean(name = "dbTaskExecutor")
+    public InstrumentedTaskExecutor dbTaskExecutor() {
+        InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor("db-async", dbCoreSize, dbMaxSize, dbQueueCapacity);
+        executor.setThreadFactory(executionMode.poolThreadFactory("db-async-"));
+        return executor;
+    }
+
+    // For @Async methods
+    @Bean(name = "taskExecutor")
+    public InstrumentedTaskExecutor taskExecutor() {
+        InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor("app-async", taskCoreSize, taskMaxSize, taskQueueCapacity);
+        executor.setThreadFactory(executionMode.poolThreadFactory("app-async-"));
+        return executor;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return taskExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) ->
+                System.err.println("Async method " + method.getName() + " failed: " + e.getMessage());
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.apcproject3.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+// Chooses whether request handling and background work run on platform or
+// virtual threads (execution.mode=platform|virtual). Asking for virtual
+// threads on a runtime without them logs a warning and stays on platform
+// threads.
+@Component
+public class ExecutionMode {
+
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+
+    private final boolean virtual;
+
+    public ExecutionMode(@Value("${execution.mode:platform}") String configured) {
+        String mode = configured.trim().toLowerCase();
+        if (!PLATFORM.equals(mode) && !VIRTUAL.equals(mode)) {
+            throw new IllegalArgumentException("execution.mode must be '" + PLATFORM + "' or '" + VIRTUAL + "', was '" + configured + "'");
+        }
+
+        if (VIRTUAL.equals(mode) && !VirtualThreads.isSupported()) {
+            System.err.println("execution.mode=virtual needs Java 21 or newer, running on Java "
+                    + System.getProperty("java.version") + "; using platform threads");
+            virtual = false;
+        } else {
+            virtual = VIRTUAL.equals(mode);
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public String getName() {
+        return virtual ? VIRTUAL : PLATFORM;
+    }
+
+    // Thread factory for a bounded pool: virtual threads in virtual mode, null
+    // to keep the pool's default platform threads otherwise
+    public ThreadFactory poolThreadFactory(String prefix) {
+        return virtual ? VirtualThreads.factory(prefix) : null;
+    }
+
+    // Executor for servlet requests in virtual mode: one virtual thread per request
+    public ExecutorService newRequestExecutor() {
+        return VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+    }
+}
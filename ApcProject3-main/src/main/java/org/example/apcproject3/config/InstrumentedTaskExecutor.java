@@ -0,0 +1,88 @@
+package org.example.apcproject3.config;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded thread pool that records how long tasks wait in the queue and how
+// long they run. When both the pool and the queue are full the submitting
+// thread runs the task itself, which slows producers down instead of
+// dropping work or growing the queue without limit.
+public class InstrumentedTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private final String name;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    public InstrumentedTaskExecutor(String name, int coreSize, int maxSize, int queueCapacity) {
+        this.name = name;
+        setThreadNamePrefix(name + "-");
+        setCorePoolSize(coreSize);
+        setMaxPoolSize(maxSize);
+        setQueueCapacity(queueCapacity);
+        setWaitForTasksToCompleteOnShutdown(true);
+        setAwaitTerminationSeconds(30);
+        setTaskDecorator(this::instrument);
+        setRejectedExecutionHandler((task, executor) -> {
+            callerRuns.increment();
+            new ThreadPoolExecutor.CallerRunsPolicy().rejectedExecution(task, executor);
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> getStats() {
+        long completedCount = completed.sum() + failed.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", getPoolSize());
+        stats.put("activeThreads", getActiveCount());
+        stats.put("maxPoolSize", getMaxPoolSize());
+        stats.put("queueDepth", getQueueSize());
+        stats.put("queueCapacity", getQueueCapacity());
+        stats.put("submitted", submitted.sum());
+        stats.put("completed", completed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("callerRuns", callerRuns.sum());
+        stats.put("avgQueueWaitMs", completedCount == 0 ? 0.0 : queueWaitNanos.sum() / 1e6 / completedCount);
+        stats.put("maxQueueWaitMs", maxQueueWaitNanos.get() / 1e6);
+        stats.put("avgRunMs", completedCount == 0 ? 0.0 : runNanos.sum() / 1e6 / completedCount);
+        stats.put("maxRunMs", maxRunNanos.get() / 1e6);
+        return stats;
+    }
+
+    private Runnable instrument(Runnable task) {
+        submitted.increment();
+        long queuedAt = System.nanoTime();
+        return () -> {
+            long startedAt = System.nanoTime();
+            record(queueWaitNanos, maxQueueWaitNanos, startedAt - queuedAt);
+            boolean success = false;
+            try {
+                task.run();
+                success = true;
+            } finally {
+                record(runNanos, maxRunNanos, System.nanoTime() - startedAt);
+                (success ? completed : failed).increment();
+            }
+        };
+    }
+
+    private static void record(LongAdder total, AtomicLong max, long nanos) {
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+}
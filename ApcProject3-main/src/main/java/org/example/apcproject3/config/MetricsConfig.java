@@ -0,0 +1,52 @@
+package org.example.apcproject3.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import org.example.apcproject3.metrics.SlowQueryLog;
+import org.example.apcproject3.metrics.SqlRecordingDataSource;
+import org.example.apcproject3.metrics.TimerRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Hooks the metrics subsystem into the connection pool: Hikari reports time
+// spent waiting for and holding a connection, and the DataSource is wrapped so
+// every statement is timed and counted for the request that ran it
+@Configuration
+public class MetricsConfig {
+
+    // Static so it is registered before the DataSource is created; the timer
+    // registry and slow query log are resolved lazily on first use
+    @Bean
+    public static BeanPostProcessor dataSourceMetricsPostProcessor(ObjectProvider<TimerRegistry> timerRegistry,
+                                                                   ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource && ((HikariDataSource) bean).getMetricsTrackerFactory() == null) {
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    dataSource.setMetricsTrackerFactory((poolName, poolStats) -> new IMetricsTracker() {
+                        @Override
+                        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                            timerRegistry.getObject().timer(TimerRegistry.DB_CONNECTION_ACQUIRE).record(elapsedAcquiredNanos, false);
+                        }
+
+                        @Override
+                        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                            timerRegistry.getObject().timer(TimerRegistry.DB_CONNECTION_USAGE).record(elapsedBorrowedMillis * 1_000_000, false);
+                        }
+
+                        @Override
+                        public void recordConnectionTimeout() {
+                            timerRegistry.getObject().timer(TimerRegistry.DB_CONNECTION_ACQUIRE)
+                                    .record(dataSource.getConnectionTimeout() * 1_000_000, true);
+                        }
+                    });
+                    return new SqlRecordingDataSource(dataSource, slowQueryLog::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.apcproject3.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// Virtual thread factories looked up reflectively, so the application still
+// compiles and runs on Java 17 and switches to virtual threads when it is
+// started on a runtime that has them (Java 21+).
+final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = find(Thread.class, "ofVirtual");
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    // Factory for virtual threads named prefix0, prefix1, ...
+    static ThreadFactory factory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalStateException("Virtual threads are not available on Java " + System.getProperty("java.version"), e);
+        }
+    }
+
+    // One new virtual thread per task, no pooling
+    static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        try {
+            Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) method.invoke(null, factory(prefix));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available on Java " + System.getProperty("java.version"), e);
+        }
+    }
+
+    private static Method find(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
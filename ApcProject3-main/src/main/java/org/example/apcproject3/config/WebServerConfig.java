@@ -0,0 +1,28 @@
+package org.example.apcproject3.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// In virtual mode Tomcat hands every request to its own virtual thread
+// instead of its worker pool (server.tomcat.threads.max). The database pool
+// (spring.datasource.hikari.maximum-pool-size) then becomes the limit on
+// concurrent queries, and requests beyond it wait for a connection without
+// holding an OS thread.
+@Configuration
+public class WebServerConfig {
+
+    @Autowired
+    private ExecutionMode executionMode;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> executionModeCustomizer() {
+        return protocolHandler -> {
+            if (executionMode.isVirtual()) {
+                protocolHandler.setExecutor(executionMode.newRequestExecutor());
+                System.out.println("Handling HTTP requests on virtual threads");
+            }
+        };
+    }
+}
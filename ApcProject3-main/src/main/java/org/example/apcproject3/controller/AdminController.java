@@ -1,7 +1,11 @@
 package org.example.apcproject3.controller;
 
+import org.example.apcproject3.config.ExecutionMode;
+import org.example.apcproject3.config.InstrumentedTaskExecutor;
 import org.example.apcproject3.entity.User;
 import org.example.apcproject3.entity.UserRole;
+import org.example.apcproject3.metrics.RequestMetricsFilter;
+import org.example.apcproject3.metrics.SlowQueryLog;
 import org.example.apcproject3.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -10,7 +14,9 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/admin")
@@ -20,6 +26,18 @@ public class AdminController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private List<InstrumentedTaskExecutor> executors;
+
+    @Autowired
+    private ExecutionMode executionMode;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private RequestMetricsFilter requestMetricsFilter;
+
     @GetMapping("/dashboard")
     public String adminDashboard(Model model) {
         // Get user statistics
@@ -167,6 +185,19 @@ public class AdminController {
         // Add system information if needed
         model.addAttribute("javaVersion", System.getProperty("java.version"));
         model.addAttribute("springBootVersion", "3.x"); // You can get this dynamically
+        model.addAttribute("executionMode", executionMode.getName());
+
+        Map<String, Map<String, Object>> executorStats = new LinkedHashMap<>();
+        for (InstrumentedTaskExecutor executor : executors) {
+            executorStats.put(executor.getName(), executor.getStats());
+        }
+        model.addAttribute("executors", executorStats);
+
+        model.addAttribute("slowQueries", slowQueryLog.getSlowQueries());
+        model.addAttribute("slowQueryStats", slowQueryLog.getStats());
+        model.addAttribute("statementBudget", requestMetricsFilter.getStatementBudget());
+        model.addAttribute("sqlTimeBudgetMs", requestMetricsFilter.getSqlTimeBudgetMs());
+        model.addAttribute("budgetViolations", requestMetricsFilter.getBudgetViolations());
 
         return "admin/system-info";
     }
@@ -177,6 +177,11 @@ public class AuthController {
             if (session != null) {
                 session.invalidate();
             }
+
+            String bearerToken = request.getHeader("Authorization");
+            if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+                tokenProvider.blacklistToken(bearerToken.substring(7));
+            }
             SecurityContextHolder.clearContext();
 
             Map<String, String> response = new HashMap<>();
@@ -1,8 +1,15 @@
 package org.example.apcproject3.controller;
 
+import org.example.apcproject3.dto.AvailabilityWindow;
+import org.example.apcproject3.dto.ProviderAvailabilityMatch;
+import org.example.apcproject3.entity.AvailabilityRule;
+import org.example.apcproject3.entity.AvailabilityRuleException;
 import org.example.apcproject3.entity.AvailabilitySlot;
 import org.example.apcproject3.entity.ServiceProvider;
 import org.example.apcproject3.entity.User;
+import org.example.apcproject3.service.AvailabilityCalendarService;
+import org.example.apcproject3.service.AvailabilityRuleService;
+import org.example.apcproject3.service.AvailabilitySearchService;
 import org.example.apcproject3.service.AvailabilitySlotService;
 import org.example.apcproject3.service.ServiceProviderService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +21,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +39,19 @@ public class AvailabilitySlotController {
     @Autowired
     private ServiceProviderService serviceProviderService;
 
+    @Autowired
+    private AvailabilityCalendarService availabilityCalendarService;
+
+    @Autowired
+    private AvailabilitySearchService availabilitySearchService;
+
+    @Autowired
+    private AvailabilityRuleService availabilityRuleService;
+
+    private static final int MAX_WINDOW_DAYS = 31;
+    private static final int MAX_SEARCH_DAYS = 14;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     // Public endpoints
     @GetMapping("/provider/{providerId}")
     public ResponseEntity<?> getProviderAvailability(@PathVariable Long providerId) {
@@ -56,7 +77,7 @@ public class AvailabilitySlotController {
             @PathVariable Long providerId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date) {
         try {
-            List<AvailabilitySlot> slots = availabilitySlotService.findAvailableSlotsByProviderAndDate(providerId, date);
+            List<AvailabilitySlot> slots = availabilitySlotService.findAvailableSlotsByProviderOnDay(providerId, date.toLocalDate());
             return ResponseEntity.ok(slots);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -65,6 +86,71 @@ public class AvailabilitySlotController {
         }
     }
 
+    @GetMapping("/provider/{providerId}/free")
+    public ResponseEntity<?> isProviderFree(
+            @PathVariable Long providerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("providerId", providerId);
+            response.put("startTime", startTime);
+            response.put("endTime", endTime);
+            response.put("free", availabilityCalendarService.isFree(providerId, startTime, endTime));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to check availability: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/provider/{providerId}/windows")
+    public ResponseEntity<?> getProviderFreeWindows(
+            @PathVariable Long providerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "7") int days) {
+        try {
+            if (days < 1 || days > MAX_WINDOW_DAYS) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "days must be between 1 and " + MAX_WINDOW_DAYS);
+                return ResponseEntity.badRequest().body(error);
+            }
+
+            List<AvailabilityWindow> windows = availabilityCalendarService.findFreeWindows(providerId, from, days);
+            return ResponseEntity.ok(windows);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to fetch availability: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchAvailableProviders(
+            @RequestParam Long categoryId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "60") int durationMinutes,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            if (endTime.isAfter(startTime.plusDays(MAX_SEARCH_DAYS))) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Search window cannot exceed " + MAX_SEARCH_DAYS + " days");
+                return ResponseEntity.badRequest().body(error);
+            }
+
+            int cappedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+            List<ProviderAvailabilityMatch> matches = availabilitySearchService.search(
+                    categoryId, startTime, endTime, durationMinutes, cappedLimit);
+            return ResponseEntity.ok(matches);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to search availability: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     // Provider endpoints
     @PostMapping
     @PreAuthorize("hasRole('SERVICE_PROVIDER')")
@@ -201,4 +287,130 @@ public class AvailabilitySlotController {
             return ResponseEntity.badRequest().body(error);
         }
     }
+
+    // Recurring availability rules
+    @PostMapping("/rules")
+    @PreAuthorize("hasRole('SERVICE_PROVIDER')")
+    public ResponseEntity<?> createAvailabilityRule(@Valid @RequestBody AvailabilityRule rule, Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            Optional<ServiceProvider> providerOpt = serviceProviderService.findByUser(currentUser);
+
+            if (!providerOpt.isPresent()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Service provider profile not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            }
+
+            rule.setProvider(providerOpt.get());
+            AvailabilityRule savedRule = availabilityRuleService.createRule(rule);
+            return ResponseEntity.status(HttpStatus.CREATED).body(savedRule);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to create availability rule: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/rules/my")
+    @PreAuthorize("hasRole('SERVICE_PROVIDER')")
+    public ResponseEntity<?> getMyAvailabilityRules(Authentication authentication) {
+        try {
+            User currentUser = (User) authentication.getPrincipal();
+            Optional<ServiceProvider> providerOpt = serviceProviderService.findByUser(currentUser);
+
+            if (!providerOpt.isPresent()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Service provider profile not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            }
+
+            List<AvailabilityRule> rules = availabilityRuleService.findByProvider(providerOpt.get());
+            return ResponseEntity.ok(rules);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to fetch availability rules: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PutMapping("/rules/{id}")
+    @PreAuthorize("hasRole('SERVICE_PROVIDER')")
+    public ResponseEntity<?> updateAvailabilityRule(@PathVariable Long id, @Valid @RequestBody AvailabilityRule changes,
+                                                    Authentication authentication) {
+        try {
+            ResponseEntity<?> denied = checkRuleOwnership(id, authentication);
+            if (denied != null) {
+                return denied;
+            }
+
+            AvailabilityRule updatedRule = availabilityRuleService.updateRule(id, changes);
+            return ResponseEntity.ok(updatedRule);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to update availability rule: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @DeleteMapping("/rules/{id}")
+    @PreAuthorize("hasRole('SERVICE_PROVIDER')")
+    public ResponseEntity<?> deleteAvailabilityRule(@PathVariable Long id, Authentication authentication) {
+        try {
+            ResponseEntity<?> denied = checkRuleOwnership(id, authentication);
+            if (denied != null) {
+                return denied;
+            }
+
+            availabilityRuleService.deleteRule(id);
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Availability rule deleted successfully");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to delete availability rule: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PostMapping("/rules/{id}/exceptions")
+    @PreAuthorize("hasRole('SERVICE_PROVIDER')")
+    public ResponseEntity<?> addAvailabilityRuleException(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            Authentication authentication) {
+        try {
+            ResponseEntity<?> denied = checkRuleOwnership(id, authentication);
+            if (denied != null) {
+                return denied;
+            }
+
+            AvailabilityRuleException savedException = availabilityRuleService.addException(id, date);
+            return ResponseEntity.status(HttpStatus.CREATED).body(savedException);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to add rule exception: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    // Returns an error response unless the rule exists and belongs to the current provider
+    private ResponseEntity<?> checkRuleOwnership(Long ruleId, Authentication authentication) {
+        User currentUser = (User) authentication.getPrincipal();
+        Optional<AvailabilityRule> ruleOpt = availabilityRuleService.findById(ruleId);
+
+        if (!ruleOpt.isPresent()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Availability rule not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+
+        Optional<ServiceProvider> providerOpt = serviceProviderService.findByUser(currentUser);
+        if (!providerOpt.isPresent() || !ruleOpt.get().getProvider().getId().equals(providerOpt.get().getId())) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Access denied");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+        }
+        return null;
+    }
 }
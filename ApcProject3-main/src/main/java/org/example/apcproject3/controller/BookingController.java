@@ -1,19 +1,26 @@
 package org.example.apcproject3.controller;
 
+import org.example.apcproject3.dto.BookingExportFormat;
+import org.example.apcproject3.dto.BookingPage;
+import org.example.apcproject3.dto.BookingSummary;
 import org.example.apcproject3.entity.Booking;
 import org.example.apcproject3.entity.BookingStatus;
 import org.example.apcproject3.entity.ServiceProvider;
 import org.example.apcproject3.entity.User;
+import org.example.apcproject3.service.BookingExportService;
 import org.example.apcproject3.service.BookingService;
 import org.example.apcproject3.service.ServiceProviderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +38,11 @@ public class BookingController {
     @Autowired
     private ServiceProviderService serviceProviderService;
 
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     // Customer endpoints
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
@@ -51,19 +63,17 @@ public class BookingController {
     @GetMapping("/my")
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<?> getMyBookings(Authentication authentication,
-                                         @RequestParam(required = false) String status) {
+                                         @RequestParam(required = false) String status,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int size) {
         try {
             User currentUser = (User) authentication.getPrincipal();
-            List<Booking> bookings;
-
-            if (status != null && !status.isEmpty()) {
-                // Filter by status
-                String[] statuses = status.split(",");
-                bookings = bookingService.getBookingsByCustomerAndStatus(currentUser, statuses);
-            } else {
-                bookings = bookingService.getBookingsByCustomer(currentUser);
-            }
 
+            // Filter by status
+            String[] statuses = status != null && !status.isEmpty() ? status.split(",") : null;
+
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            BookingPage bookings = bookingService.getBookingsByCustomer(currentUser, statuses, cursor, pageSize);
             return ResponseEntity.ok(bookings);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -108,10 +118,13 @@ public class BookingController {
     // Provider endpoints
     @GetMapping("/provider/my")
     @PreAuthorize("hasRole('SERVICE_PROVIDER')")
-    public ResponseEntity<?> getMyProviderBookings(Authentication authentication) {
+    public ResponseEntity<?> getMyProviderBookings(Authentication authentication,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "20") int size) {
         try {
             User currentUser = (User) authentication.getPrincipal();
-            List<Booking> bookings = bookingService.getBookingsByProvider(currentUser);
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            BookingPage bookings = bookingService.getBookingsByProvider(currentUser, cursor, pageSize);
             return ResponseEntity.ok(bookings);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -125,7 +138,7 @@ public class BookingController {
     public ResponseEntity<?> getRecentProviderBookings(Authentication authentication) {
         try {
             User currentUser = (User) authentication.getPrincipal();
-            List<Booking> bookings = bookingService.getRecentBookingsByProvider(currentUser, 5);
+            List<BookingSummary> bookings = bookingService.getRecentBookingsByProvider(currentUser, 5);
             return ResponseEntity.ok(bookings);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -165,19 +178,32 @@ public class BookingController {
     }
 
     // Admin endpoints
+    // Streams the full list as a JSON array instead of materializing it
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        List<Booking> bookings = bookingService.findBookingsAsync().join();
-        return ResponseEntity.ok(bookings);
+    public void getAllBookings(HttpServletResponse response) throws IOException {
+        response.setContentType(BookingExportFormat.JSON.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        bookingExportService.exportBookings(response.getOutputStream(), BookingExportFormat.JSON);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportBookings(@RequestParam(defaultValue = "NDJSON") BookingExportFormat format,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"bookings." + format.getExtension() + "\"");
+        bookingExportService.exportBookings(response.getOutputStream(), format);
     }
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Booking>> getBookingsByStatus(@PathVariable String status) {
+    public ResponseEntity<List<BookingSummary>> getBookingsByStatus(@PathVariable String status) {
         try {
             BookingStatus bookingStatus = BookingStatus.valueOf(status.toUpperCase());
-            List<Booking> bookings = bookingService.findByStatus(bookingStatus);
+            List<BookingSummary> bookings = bookingService.getBookingSummariesByStatus(bookingStatus);
             return ResponseEntity.ok(bookings);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
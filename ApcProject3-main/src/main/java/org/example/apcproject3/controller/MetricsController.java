@@ -0,0 +1,150 @@
+package org.example.apcproject3.controller;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.example.apcproject3.aspect.MethodMetrics;
+import org.example.apcproject3.config.InstrumentedTaskExecutor;
+import org.example.apcproject3.metrics.EndpointMetrics;
+import org.example.apcproject3.metrics.RequestMetricsFilter;
+import org.example.apcproject3.metrics.SlowQueryLog;
+import org.example.apcproject3.metrics.TimerRegistry;
+import org.example.apcproject3.security.AuthenticatedPrincipalCache;
+import org.example.apcproject3.security.TokenRevocationStore;
+import org.example.apcproject3.service.AvailabilityCalendarService;
+import org.example.apcproject3.service.BookingOutboxDispatcher;
+import org.example.apcproject3.service.CategoryCatalogCache;
+import org.example.apcproject3.service.ServiceLogWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+@PreAuthorize("hasRole('ADMIN')")
+public class MetricsController {
+
+    private static final int MAX_METHODS = 200;
+
+    @Autowired
+    private EndpointMetrics endpointMetrics;
+
+    @Autowired
+    private MethodMetrics methodMetrics;
+
+    @Autowired
+    private TimerRegistry timerRegistry;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private RequestMetricsFilter requestMetricsFilter;
+
+    @Autowired
+    private List<InstrumentedTaskExecutor> executors;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CategoryCatalogCache categoryCatalogCache;
+
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
+    @Autowired
+    private AvailabilityCalendarService availabilityCalendarService;
+
+    @Autowired
+    private BookingOutboxDispatcher bookingOutboxDispatcher;
+
+    @Autowired
+    private ServiceLogWriter serviceLogWriter;
+
+    // Everything at once, for a scraper polling this endpoint
+    @GetMapping
+    public ResponseEntity<?> getMetrics() {
+        try {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("endpoints", endpointMetrics.getSnapshot());
+            metrics.put("methods", methodMetrics.getSnapshot(MAX_METHODS));
+            metrics.put("timers", timerRegistry.getSnapshot());
+            metrics.put("connectionPool", connectionPoolStats());
+            metrics.put("executors", executorStats());
+            metrics.put("caches", cacheStats());
+            metrics.put("sql", sqlStats());
+            metrics.put("bookingOutbox", bookingOutboxDispatcher.getStats());
+            metrics.put("serviceLog", serviceLogWriter.getStats());
+            return ResponseEntity.ok(metrics);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to collect metrics: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    @GetMapping("/endpoints")
+    public ResponseEntity<?> getEndpointMetrics() {
+        return ResponseEntity.ok(endpointMetrics.getSnapshot());
+    }
+
+    @GetMapping("/methods")
+    public ResponseEntity<?> getMethodMetrics(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(methodMetrics.getSnapshot(Math.max(1, Math.min(limit, MAX_METHODS))));
+    }
+
+    private Map<String, Object> connectionPoolStats() throws SQLException {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        HikariDataSource hikari = dataSource.isWrapperFor(HikariDataSource.class)
+                ? dataSource.unwrap(HikariDataSource.class)
+                : null;
+        if (hikari != null && hikari.isRunning()) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            stats.put("active", pool.getActiveConnections());
+            stats.put("idle", pool.getIdleConnections());
+            stats.put("total", pool.getTotalConnections());
+            stats.put("maxSize", hikari.getMaximumPoolSize());
+            stats.put("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+        }
+        return stats;
+    }
+
+    private Map<String, Object> sqlStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(slowQueryLog.getStats());
+        stats.put("statementBudget", requestMetricsFilter.getStatementBudget());
+        stats.put("timeBudgetMs", requestMetricsFilter.getSqlTimeBudgetMs());
+        stats.put("budgetViolations", requestMetricsFilter.getBudgetViolations());
+        stats.put("slowestQueries", slowQueryLog.getSlowQueries());
+        stats.put("recentSlowQueries", slowQueryLog.getRecentSlowQueries());
+        return stats;
+    }
+
+    private Map<String, Object> executorStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (InstrumentedTaskExecutor executor : executors) {
+            stats.put(executor.getName(), executor.getStats());
+        }
+        return stats;
+    }
+
+    private Map<String, Object> cacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("categoryCatalog", categoryCatalogCache.getStats());
+        stats.put("authenticatedPrincipals", principalCache.getStats());
+        stats.put("tokenRevocations", revocationStore.getStats());
+        stats.put("availabilityCalendarDays", availabilityCalendarService.getCachedDays());
+        return stats;
+    }
+}
@@ -115,6 +115,7 @@ public class ReviewController {
             Map<String, Object> stats = new HashMap<>();
             stats.put("averageRating", Math.round(avgRating * 10.0) / 10.0); // Round to 1 decimal
             stats.put("totalReviews", reviewCount);
+            stats.put("ratingHistogram", reviewService.getRatingHistogramForProvider(providerId));
 
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
@@ -91,4 +91,10 @@ public class ServiceController {
         List<ServiceCategory> categories = serviceCategoryService.findAllCategories();
         return ResponseEntity.ok(categories);
     }
+
+    @GetMapping("/admin/categories/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCategoryCacheStats() {
+        return ResponseEntity.ok(serviceCategoryService.getCatalogCacheStats());
+    }
 }
@@ -1,5 +1,9 @@
 package org.example.apcproject3.controller;
 
+import org.example.apcproject3.dto.ProviderCard;
+import org.example.apcproject3.dto.ProviderSearchCriteria;
+import org.example.apcproject3.dto.ProviderSearchPage;
+import org.example.apcproject3.dto.ProviderSort;
 import org.example.apcproject3.entity.ServiceProvider;
 import org.example.apcproject3.entity.ServiceCategory;
 import org.example.apcproject3.entity.User;
@@ -30,13 +34,46 @@ public class ServiceProviderController {
     @Autowired
     private ServiceCategoryService serviceCategoryService;
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     // Public endpoints
     @GetMapping
-    public ResponseEntity<List<ServiceProvider>> getAllProviders() {
-        List<ServiceProvider> providers = serviceProviderService.findAvailableProviders();
+    public ResponseEntity<List<ProviderCard>> getAllProviders() {
+        List<ProviderCard> providers = serviceProviderService.findAvailableProviders();
         return ResponseEntity.ok(providers);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProviders(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minRate,
+            @RequestParam(required = false) BigDecimal maxRate,
+            @RequestParam(required = false) BigDecimal minRating,
+            @RequestParam(required = false) Boolean verified,
+            @RequestParam(defaultValue = "true") Boolean available,
+            @RequestParam(defaultValue = "RATING") ProviderSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            ProviderSearchCriteria criteria = new ProviderSearchCriteria();
+            criteria.setCategoryId(categoryId);
+            criteria.setMinRate(minRate);
+            criteria.setMaxRate(maxRate);
+            criteria.setMinRating(minRating);
+            criteria.setVerified(verified);
+            criteria.setAvailable(available);
+            criteria.setSort(sort);
+
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            ProviderSearchPage page = serviceProviderService.searchProviders(criteria, cursor, pageSize);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to search providers: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getProviderById(@PathVariable Long id) {
         Optional<ServiceProvider> provider = serviceProviderService.findById(id);
@@ -60,7 +97,7 @@ public class ServiceProviderController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
 
-            List<ServiceProvider> providers = serviceProviderService.findAvailableProvidersByCategory(category.get());
+            List<ProviderCard> providers = serviceProviderService.findAvailableProviderCardsByCategory(categoryId);
             return ResponseEntity.ok(providers);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -70,16 +107,18 @@ public class ServiceProviderController {
     }
 
     @GetMapping("/top-rated")
-    public ResponseEntity<List<ServiceProvider>> getTopRatedProviders(@RequestParam(defaultValue = "4.0") BigDecimal minRating) {
-        List<ServiceProvider> providers = serviceProviderService.findTopRatedProviders(minRating);
+    public ResponseEntity<List<ProviderCard>> getTopRatedProviders(@RequestParam(defaultValue = "4.0") BigDecimal minRating,
+                                                                   @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<ProviderCard> providers = serviceProviderService.findTopRatedProviders(minRating, pageSize);
         return ResponseEntity.ok(providers);
     }
 
     @GetMapping("/price-range")
-    public ResponseEntity<List<ServiceProvider>> getProvidersByPriceRange(
+    public ResponseEntity<List<ProviderCard>> getProvidersByPriceRange(
             @RequestParam BigDecimal minRate,
             @RequestParam BigDecimal maxRate) {
-        List<ServiceProvider> providers = serviceProviderService.findProvidersByPriceRange(minRate, maxRate);
+        List<ProviderCard> providers = serviceProviderService.findProvidersByPriceRange(minRate, maxRate);
         return ResponseEntity.ok(providers);
     }
 
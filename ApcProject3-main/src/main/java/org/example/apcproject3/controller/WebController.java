@@ -1,9 +1,11 @@
 package org.example.apcproject3.controller;
 
+import org.example.apcproject3.dto.HomePageModel;
 import org.example.apcproject3.entity.ServiceCategory;
 import org.example.apcproject3.entity.ServiceProvider;
 import org.example.apcproject3.entity.User;
 import org.example.apcproject3.entity.UserRole;
+import org.example.apcproject3.service.HomePageService;
 import org.example.apcproject3.service.ServiceCategoryService;
 import org.example.apcproject3.service.ServiceProviderService;
 import org.example.apcproject3.service.UserService;
@@ -17,12 +19,13 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,19 +41,27 @@ public class WebController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private HomePageService homePageService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    // The landing page is the same for every visitor, so it is served from the
+    // precomputed model and revalidated by its content ETag instead of re-querying
     @GetMapping("/")
-    public String home(Model model) {
-        List<ServiceCategory> categories = serviceCategoryService.findActiveCategoriesOrdered();
-        List<ServiceProvider> topProviders = serviceProviderService.findTopRatedProviders(new BigDecimal("4.0"));
+    public String home(Model model, WebRequest webRequest, HttpServletResponse response) {
+        HomePageModel homePage = homePageService.getHomePage();
+        response.setHeader("Cache-Control", "no-cache");
+        if (webRequest.checkNotModified(homePage.getETag())) {
+            return null;
+        }
 
-        model.addAttribute("categories", categories);
-        model.addAttribute("topProviders", topProviders.subList(0, Math.min(6, topProviders.size())));
+        model.addAttribute("categories", homePage.getCategories());
+        model.addAttribute("topProviders", homePage.getTopProviders());
 
         return "index";
     }
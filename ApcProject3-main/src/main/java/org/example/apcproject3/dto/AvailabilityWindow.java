@@ -0,0 +1,24 @@
+package org.example.apcproject3.dto;
+
+import java.time.LocalDateTime;
+
+public class AvailabilityWindow {
+
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    // Constructors
+    public AvailabilityWindow() {}
+
+    public AvailabilityWindow(LocalDateTime startTime, LocalDateTime endTime) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+}
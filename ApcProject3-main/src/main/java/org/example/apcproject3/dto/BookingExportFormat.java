@@ -0,0 +1,19 @@
+package org.example.apcproject3.dto;
+
+public enum BookingExportFormat {
+    JSON("application/json", "json"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    BookingExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() { return contentType; }
+
+    public String getExtension() { return extension; }
+}
@@ -0,0 +1,25 @@
+package org.example.apcproject3.dto;
+
+import java.util.List;
+
+public class BookingPage {
+
+    private List<BookingSummary> bookings;
+    private String nextCursor;
+
+    // Constructors
+    public BookingPage() {}
+
+    public BookingPage(List<BookingSummary> bookings, String nextCursor) {
+        this.bookings = bookings;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<BookingSummary> getBookings() { return bookings; }
+    public void setBookings(List<BookingSummary> bookings) { this.bookings = bookings; }
+
+    // Null on the last page
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,97 @@
+package org.example.apcproject3.dto;
+
+import org.example.apcproject3.entity.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Flat view of a booking for list endpoints: the booking columns plus the
+// names of the people and category involved, without the entities behind them
+public class BookingSummary {
+
+    private Long id;
+    private BookingStatus status;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private BigDecimal totalAmount;
+    private String description;
+    private String address;
+    private LocalDateTime createdAt;
+    private Long customerId;
+    private String customerFirstName;
+    private String customerLastName;
+    private Long providerId;
+    private String providerFirstName;
+    private String providerLastName;
+    private String categoryName;
+
+    // Constructors
+    public BookingSummary() {}
+
+    public BookingSummary(Long id, BookingStatus status, LocalDateTime startTime, LocalDateTime endTime,
+                          BigDecimal totalAmount, String description, String address, LocalDateTime createdAt,
+                          Long customerId, String customerFirstName, String customerLastName,
+                          Long providerId, String providerFirstName, String providerLastName, String categoryName) {
+        this.id = id;
+        this.status = status;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.totalAmount = totalAmount;
+        this.description = description;
+        this.address = address;
+        this.createdAt = createdAt;
+        this.customerId = customerId;
+        this.customerFirstName = customerFirstName;
+        this.customerLastName = customerLastName;
+        this.providerId = providerId;
+        this.providerFirstName = providerFirstName;
+        this.providerLastName = providerLastName;
+        this.categoryName = categoryName;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public BookingStatus getStatus() { return status; }
+    public void setStatus(BookingStatus status) { this.status = status; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getCustomerFirstName() { return customerFirstName; }
+    public void setCustomerFirstName(String customerFirstName) { this.customerFirstName = customerFirstName; }
+
+    public String getCustomerLastName() { return customerLastName; }
+    public void setCustomerLastName(String customerLastName) { this.customerLastName = customerLastName; }
+
+    public Long getProviderId() { return providerId; }
+    public void setProviderId(Long providerId) { this.providerId = providerId; }
+
+    public String getProviderFirstName() { return providerFirstName; }
+    public void setProviderFirstName(String providerFirstName) { this.providerFirstName = providerFirstName; }
+
+    public String getProviderLastName() { return providerLastName; }
+    public void setProviderLastName(String providerLastName) { this.providerLastName = providerLastName; }
+
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+}
@@ -0,0 +1,66 @@
+package org.example.apcproject3.dto;
+
+import org.example.apcproject3.entity.ServiceCategory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+// Immutable, versioned snapshot of everything the landing page renders
+public class HomePageModel {
+
+    private final long version;
+    private final List<ServiceCategory> categories;
+    private final List<ProviderCard> topProviders;
+    private final String eTag;
+
+    // Constructors
+    public HomePageModel(long version, List<ServiceCategory> categories, List<ProviderCard> topProviders) {
+        this.version = version;
+        this.categories = categories;
+        this.topProviders = topProviders;
+        this.eTag = "\"home-" + contentHash(categories, topProviders) + "\"";
+    }
+
+    // Getters
+    public long getVersion() { return version; }
+
+    public List<ServiceCategory> getCategories() { return categories; }
+
+    public List<ProviderCard> getTopProviders() { return topProviders; }
+
+    // Derived from the rendered fields rather than the version, so it survives
+    // restarts and is the same on every instance serving the same data
+    public String getETag() { return eTag; }
+
+    private static String contentHash(List<ServiceCategory> categories, List<ProviderCard> topProviders) {
+        StringBuilder content = new StringBuilder();
+        for (ServiceCategory category : categories) {
+            content.append('C').append('\u0000').append(category.getId())
+                    .append('\u0000').append(category.getName())
+                    .append('\u0000').append(category.getDescription())
+                    .append('\u0000').append(category.getIcon()).append('\n');
+        }
+        for (ProviderCard provider : topProviders) {
+            content.append('P').append('\u0000').append(provider.getId())
+                    .append('\u0000').append(provider.getFirstName())
+                    .append('\u0000').append(provider.getLastName())
+                    .append('\u0000').append(provider.getCategoryName())
+                    .append('\u0000').append(provider.getBio())
+                    .append('\u0000').append(provider.getRating())
+                    .append('\u0000').append(provider.getTotalReviews())
+                    .append('\u0000').append(provider.getHourlyRate())
+                    .append('\u0000').append(provider.isVerified()).append('\n');
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+}
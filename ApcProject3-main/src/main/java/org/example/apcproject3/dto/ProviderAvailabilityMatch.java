@@ -0,0 +1,46 @@
+package org.example.apcproject3.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ProviderAvailabilityMatch {
+
+    private Long providerId;
+    private String providerName;
+    private BigDecimal rating;
+    private BigDecimal hourlyRate;
+    private boolean verified;
+    private LocalDateTime earliestStart;
+
+    // Constructors
+    public ProviderAvailabilityMatch() {}
+
+    public ProviderAvailabilityMatch(Long providerId, String providerName, BigDecimal rating,
+                                     BigDecimal hourlyRate, boolean verified, LocalDateTime earliestStart) {
+        this.providerId = providerId;
+        this.providerName = providerName;
+        this.rating = rating;
+        this.hourlyRate = hourlyRate;
+        this.verified = verified;
+        this.earliestStart = earliestStart;
+    }
+
+    // Getters and Setters
+    public Long getProviderId() { return providerId; }
+    public void setProviderId(Long providerId) { this.providerId = providerId; }
+
+    public String getProviderName() { return providerName; }
+    public void setProviderName(String providerName) { this.providerName = providerName; }
+
+    public BigDecimal getRating() { return rating; }
+    public void setRating(BigDecimal rating) { this.rating = rating; }
+
+    public BigDecimal getHourlyRate() { return hourlyRate; }
+    public void setHourlyRate(BigDecimal hourlyRate) { this.hourlyRate = hourlyRate; }
+
+    public boolean isVerified() { return verified; }
+    public void setVerified(boolean verified) { this.verified = verified; }
+
+    public LocalDateTime getEarliestStart() { return earliestStart; }
+    public void setEarliestStart(LocalDateTime earliestStart) { this.earliestStart = earliestStart; }
+}
@@ -0,0 +1,66 @@
+package org.example.apcproject3.dto;
+
+import java.math.BigDecimal;
+
+// Flat view of a provider with just the columns a listing card renders
+public class ProviderCard {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private Long categoryId;
+    private String categoryName;
+    private String bio;
+    private BigDecimal rating;
+    private Integer totalReviews;
+    private BigDecimal hourlyRate;
+    private boolean verified;
+
+    // Constructors
+    public ProviderCard() {}
+
+    public ProviderCard(Long id, String firstName, String lastName, Long categoryId, String categoryName,
+                        String bio, BigDecimal rating, Integer totalReviews, BigDecimal hourlyRate, boolean verified) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.bio = bio;
+        this.rating = rating;
+        this.totalReviews = totalReviews;
+        this.hourlyRate = hourlyRate;
+        this.verified = verified;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+
+    public String getBio() { return bio; }
+    public void setBio(String bio) { this.bio = bio; }
+
+    public BigDecimal getRating() { return rating; }
+    public void setRating(BigDecimal rating) { this.rating = rating; }
+
+    public Integer getTotalReviews() { return totalReviews; }
+    public void setTotalReviews(Integer totalReviews) { this.totalReviews = totalReviews; }
+
+    public BigDecimal getHourlyRate() { return hourlyRate; }
+    public void setHourlyRate(BigDecimal hourlyRate) { this.hourlyRate = hourlyRate; }
+
+    public boolean isVerified() { return verified; }
+    public void setVerified(boolean verified) { this.verified = verified; }
+}
@@ -0,0 +1,40 @@
+package org.example.apcproject3.dto;
+
+import java.math.BigDecimal;
+
+// Optional provider filters; null fields are not applied
+public class ProviderSearchCriteria {
+
+    private Long categoryId;
+    private BigDecimal minRate;
+    private BigDecimal maxRate;
+    private BigDecimal minRating;
+    private Boolean verified;
+    private Boolean available = true;
+    private ProviderSort sort = ProviderSort.RATING;
+
+    // Constructors
+    public ProviderSearchCriteria() {}
+
+    // Getters and Setters
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public BigDecimal getMinRate() { return minRate; }
+    public void setMinRate(BigDecimal minRate) { this.minRate = minRate; }
+
+    public BigDecimal getMaxRate() { return maxRate; }
+    public void setMaxRate(BigDecimal maxRate) { this.maxRate = maxRate; }
+
+    public BigDecimal getMinRating() { return minRating; }
+    public void setMinRating(BigDecimal minRating) { this.minRating = minRating; }
+
+    public Boolean getVerified() { return verified; }
+    public void setVerified(Boolean verified) { this.verified = verified; }
+
+    public Boolean getAvailable() { return available; }
+    public void setAvailable(Boolean available) { this.available = available; }
+
+    public ProviderSort getSort() { return sort; }
+    public void setSort(ProviderSort sort) { this.sort = sort; }
+}
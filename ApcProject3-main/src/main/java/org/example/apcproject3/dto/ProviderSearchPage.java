@@ -0,0 +1,25 @@
+package org.example.apcproject3.dto;
+
+import java.util.List;
+
+public class ProviderSearchPage {
+
+    private List<ProviderCard> providers;
+    private String nextCursor;
+
+    // Constructors
+    public ProviderSearchPage() {}
+
+    public ProviderSearchPage(List<ProviderCard> providers, String nextCursor) {
+        this.providers = providers;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<ProviderCard> getProviders() { return providers; }
+    public void setProviders(List<ProviderCard> providers) { this.providers = providers; }
+
+    // Null on the last page
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,7 @@
+package org.example.apcproject3.dto;
+
+public enum ProviderSort {
+    RATING,
+    PRICE_ASC,
+    PRICE_DESC
+}
@@ -0,0 +1,96 @@
+package org.example.apcproject3.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Weekly recurring availability, e.g. Mon-Fri 09:00-17:00 from a date on.
+// Occurrences are expanded at query time; a slot row is only written when a
+// booking claims part of an occurrence.
+@Entity
+@Table(name = "availability_rules", indexes = {
+    @Index(name = "idx_rule_provider_validity", columnList = "provider_id, valid_from, valid_until")
+})
+// Rule listings render the days of every rule
+@NamedEntityGraph(name = "AvailabilityRule.days", attributeNodes = @NamedAttributeNode("daysOfWeek"))
+public class AvailabilityRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "provider_id", nullable = false)
+    private ServiceProvider provider;
+
+    @NotEmpty(message = "At least one day of the week is required")
+    @ElementCollection
+    @CollectionTable(name = "availability_rule_days", joinColumns = @JoinColumn(name = "rule_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week")
+    private Set<DayOfWeek> daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
+
+    @NotNull(message = "Start time is required")
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
+    @NotNull(message = "End time is required")
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    @NotNull(message = "Valid from date is required")
+    @Column(name = "valid_from")
+    private LocalDate validFrom;
+
+    // Null means "until further notice"
+    @Column(name = "valid_until")
+    private LocalDate validUntil;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Constructors
+    public AvailabilityRule() {}
+
+    public AvailabilityRule(ServiceProvider provider, Set<DayOfWeek> daysOfWeek, LocalTime startTime, LocalTime endTime, LocalDate validFrom) {
+        this.provider = provider;
+        this.daysOfWeek = daysOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.validFrom = validFrom;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public ServiceProvider getProvider() { return provider; }
+    public void setProvider(ServiceProvider provider) { this.provider = provider; }
+
+    public Set<DayOfWeek> getDaysOfWeek() { return daysOfWeek; }
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) { this.daysOfWeek = daysOfWeek; }
+
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+
+    public LocalDate getValidFrom() { return validFrom; }
+    public void setValidFrom(LocalDate validFrom) { this.validFrom = validFrom; }
+
+    public LocalDate getValidUntil() { return validUntil; }
+    public void setValidUntil(LocalDate validUntil) { this.validUntil = validUntil; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,44 @@
+package org.example.apcproject3.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// A date on which a recurring rule does not apply (holiday, day off)
+@Entity
+@Table(name = "availability_rule_exceptions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_rule_exception_date", columnNames = {"rule_id", "exception_date"})
+})
+public class AvailabilityRuleException {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "rule_id", nullable = false)
+    private AvailabilityRule rule;
+
+    @Column(name = "exception_date", nullable = false)
+    private LocalDate exceptionDate;
+
+    // Constructors
+    public AvailabilityRuleException() {}
+
+    public AvailabilityRuleException(AvailabilityRule rule, LocalDate exceptionDate) {
+        this.rule = rule;
+        this.exceptionDate = exceptionDate;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public AvailabilityRule getRule() { return rule; }
+    public void setRule(AvailabilityRule rule) { this.rule = rule; }
+
+    public LocalDate getExceptionDate() { return exceptionDate; }
+    public void setExceptionDate(LocalDate exceptionDate) { this.exceptionDate = exceptionDate; }
+}
@@ -6,11 +6,15 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "availability_slots")
+@Table(name = "availability_slots", indexes = {
+    @Index(name = "idx_slot_provider_time", columnList = "provider_id, start_time, end_time")
+})
 public class AvailabilitySlot {
 
+    // Sequence ids (allocated 50 at a time) let Hibernate batch bulk slot inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "availability_slot_seq")
+    @SequenceGenerator(name = "availability_slot_seq", sequenceName = "availability_slot_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -9,7 +9,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+    @Index(name = "idx_booking_customer_created", columnList = "customer_id, created_at, id"),
+    @Index(name = "idx_booking_provider_start", columnList = "provider_id, start_time, id")
+})
+// Fetch plan for API reads that serialize the customer and the provider with its user and category
+@NamedEntityGraph(name = "Booking.details",
+    attributeNodes = {
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "provider", subgraph = "provider")
+    },
+    subgraphs = @NamedSubgraph(name = "provider", attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("category")
+    }))
 public class Booking {
 
     @Id
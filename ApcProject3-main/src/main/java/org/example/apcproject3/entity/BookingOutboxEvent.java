@@ -0,0 +1,113 @@
+package org.example.apcproject3.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A booking state change waiting to be delivered to the secondary stores
+// (analytics, reporting). Written in the same transaction as the booking
+// change itself, so an event exists exactly when the change committed.
+@Entity
+@Table(name = "booking_outbox_events", indexes = {
+    @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at, id")
+})
+public class BookingOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "provider_id")
+    private Long providerId;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    // BOOKING_CREATED, BOOKING_CONFIRMED, SERVICE_STARTED, BOOKING_COMPLETED, ...
+    @Column(name = "event_type", nullable = false, length = 40)
+    private String eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "booking_status", length = 20)
+    private BookingStatus bookingStatus;
+
+    @Column(name = "total_amount")
+    private BigDecimal totalAmount;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxEventStatus status = OutboxEventStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // Constructors
+    public BookingOutboxEvent() {}
+
+    public BookingOutboxEvent(Booking booking, String eventType) {
+        this.bookingId = booking.getId();
+        this.providerId = booking.getProvider() != null ? booking.getProvider().getId() : null;
+        this.customerId = booking.getCustomer() != null ? booking.getCustomer().getId() : null;
+        this.eventType = eventType;
+        this.bookingStatus = booking.getStatus();
+        this.totalAmount = booking.getTotalAmount();
+        this.occurredAt = LocalDateTime.now();
+        this.nextAttemptAt = this.occurredAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+
+    public Long getProviderId() { return providerId; }
+    public void setProviderId(Long providerId) { this.providerId = providerId; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public BookingStatus getBookingStatus() { return bookingStatus; }
+    public void setBookingStatus(BookingStatus bookingStatus) { this.bookingStatus = bookingStatus; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+
+    public OutboxEventStatus getStatus() { return status; }
+    public void setStatus(OutboxEventStatus status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getDispatchedAt() { return dispatchedAt; }
+    public void setDispatchedAt(LocalDateTime dispatchedAt) { this.dispatchedAt = dispatchedAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
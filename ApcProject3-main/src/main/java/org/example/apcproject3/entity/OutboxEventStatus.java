@@ -0,0 +1,7 @@
+package org.example.apcproject3.entity;
+
+public enum OutboxEventStatus {
+    PENDING,
+    DISPATCHED,
+    FAILED
+}
@@ -0,0 +1,61 @@
+package org.example.apcproject3.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Packed availability of one provider for one day: bit i is set when the
+// provider is free for the i-th 15-minute block of the day (96 bits).
+@Entity
+@Table(name = "provider_availability_days", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_availability_day_provider_day", columnNames = {"provider_id", "calendar_day"})
+})
+public class ProviderAvailabilityDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    @Column(name = "calendar_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "free_mask", nullable = false, length = 12)
+    private byte[] freeMask;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Constructors
+    public ProviderAvailabilityDay() {}
+
+    public ProviderAvailabilityDay(Long providerId, LocalDate day, byte[] freeMask) {
+        this.providerId = providerId;
+        this.day = day;
+        this.freeMask = freeMask;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProviderId() { return providerId; }
+    public void setProviderId(Long providerId) { this.providerId = providerId; }
+
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public byte[] getFreeMask() { return freeMask; }
+    public void setFreeMask(byte[] freeMask) { this.freeMask = freeMask; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
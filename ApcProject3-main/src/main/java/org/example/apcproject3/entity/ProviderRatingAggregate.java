@@ -0,0 +1,76 @@
+package org.example.apcproject3.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Running review totals of one provider: sum and count of ratings plus a
+// histogram of 1-5 star ratings. Maintained incrementally with every review
+// write and reconciled against the reviews table periodically.
+@Entity
+@Table(name = "provider_rating_aggregates")
+public class ProviderRatingAggregate {
+
+    @Id
+    @Column(name = "provider_id")
+    private Long providerId;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Constructors
+    public ProviderRatingAggregate() {}
+
+    public ProviderRatingAggregate(Long providerId) {
+        this.providerId = providerId;
+    }
+
+    // Getters and Setters
+    public Long getProviderId() { return providerId; }
+    public void setProviderId(Long providerId) { this.providerId = providerId; }
+
+    public long getRatingSum() { return ratingSum; }
+    public void setRatingSum(long ratingSum) { this.ratingSum = ratingSum; }
+
+    public long getRatingCount() { return ratingCount; }
+    public void setRatingCount(long ratingCount) { this.ratingCount = ratingCount; }
+
+    public long getStars1() { return stars1; }
+    public void setStars1(long stars1) { this.stars1 = stars1; }
+
+    public long getStars2() { return stars2; }
+    public void setStars2(long stars2) { this.stars2 = stars2; }
+
+    public long getStars3() { return stars3; }
+    public void setStars3(long stars3) { this.stars3 = stars3; }
+
+    public long getStars4() { return stars4; }
+    public void setStars4(long stars4) { this.stars4 = stars4; }
+
+    public long getStars5() { return stars5; }
+    public void setStars5(long stars5) { this.stars5 = stars5; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -11,6 +11,16 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "reviews")
+// Same fetch plan as Booking.details, for review listings
+@NamedEntityGraph(name = "Review.details",
+    attributeNodes = {
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "provider", subgraph = "provider")
+    },
+    subgraphs = @NamedSubgraph(name = "provider", attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("category")
+    }))
 public class Review {
 
     @Id
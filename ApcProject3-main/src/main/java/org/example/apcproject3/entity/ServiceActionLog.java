@@ -0,0 +1,99 @@
+package org.example.apcproject3.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// One entry of the service action audit trail (the embedded-store counterpart
+// of the MongoDB ServiceLog document). Written in bulk by ServiceLogWriter.
+@Entity
+@Table(name = "service_action_logs", indexes = {
+    @Index(name = "idx_action_log_booking", columnList = "booking_id, created_at"),
+    @Index(name = "idx_action_log_provider", columnList = "provider_id, created_at")
+})
+public class ServiceActionLog {
+
+    // Sequence ids (allocated 50 at a time) let Hibernate batch the bulk inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_action_log_seq")
+    @SequenceGenerator(name = "service_action_log_seq", sequenceName = "service_action_log_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "provider_id")
+    private Long providerId;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    // BOOKING_CREATED, SERVICE_STARTED, BOOKING_COMPLETED, etc.
+    @Column(nullable = false, length = 40)
+    private String action;
+
+    @Column(length = 500)
+    private String description;
+
+    // Serialized by the store on the writer thread, not by the caller
+    @Transient
+    private Map<String, Object> metadata;
+
+    @Column(name = "metadata_json", length = 2000)
+    private String metadataJson;
+
+    @Column(name = "ip_address", length = 45)
+    private String ipAddress;
+
+    @Column(name = "user_agent")
+    private String userAgent;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Constructors
+    public ServiceActionLog() {}
+
+    public ServiceActionLog(Long bookingId, Long providerId, Long customerId, String action, String description) {
+        this.bookingId = bookingId;
+        this.providerId = providerId;
+        this.customerId = customerId;
+        this.action = action;
+        this.description = description;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+
+    public Long getProviderId() { return providerId; }
+    public void setProviderId(Long providerId) { this.providerId = providerId; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Map<String, Object> getMetadata() { return metadata; }
+    public void setMetadata(Map<String, Object> metadata) { this.metadata = metadata; }
+
+    public String getMetadataJson() { return metadataJson; }
+    public void setMetadataJson(String metadataJson) { this.metadataJson = metadataJson; }
+
+    public String getIpAddress() { return ipAddress; }
+    public void setIpAddress(String ipAddress) { this.ipAddress = ipAddress; }
+
+    public String getUserAgent() { return userAgent; }
+    public void setUserAgent(String userAgent) { this.userAgent = userAgent; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
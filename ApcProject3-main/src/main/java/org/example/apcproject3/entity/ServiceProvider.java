@@ -1,5 +1,6 @@
 package org.example.apcproject3.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
@@ -12,7 +13,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "service_providers")
+@Table(name = "service_providers", indexes = {
+    @Index(name = "idx_provider_search_rating", columnList = "category_id, available, verified, rating, id"),
+    @Index(name = "idx_provider_search_rate", columnList = "category_id, available, hourly_rate, id")
+})
+// Fetch plan for API reads that serialize the user and category
+@NamedEntityGraph(name = "ServiceProvider.details", attributeNodes = {
+    @NamedAttributeNode("user"),
+    @NamedAttributeNode("category")
+})
 public class ServiceProvider {
 
     @Id
@@ -35,6 +44,7 @@ public class ServiceProvider {
     private BigDecimal experienceYears;
 
     @DecimalMin(value = "0.0", message = "Hourly rate cannot be negative")
+    @Column(name = "hourly_rate")
     private BigDecimal hourlyRate;
 
     @DecimalMin(value = "0.0", message = "Rating cannot be negative")
@@ -47,9 +57,11 @@ public class ServiceProvider {
     private boolean verified = false;
 
     @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JsonIgnore
     private List<AvailabilitySlot> availabilitySlots = new ArrayList<>();
 
     @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JsonIgnore
     private List<Booking> bookings = new ArrayList<>();
 
     @Column(name = "created_at")
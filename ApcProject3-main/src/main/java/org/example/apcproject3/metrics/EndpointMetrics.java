@@ -0,0 +1,66 @@
+package org.example.apcproject3.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-endpoint request latency, client (4xx) and server (5xx) errors, and SQL statement count and time,
+// keyed by HTTP method and the matched URL pattern (GET /api/bookings/{id})
+@Component
+public class EndpointMetrics {
+
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, int status, int statements, long sqlNanos) {
+        EndpointStats stats = endpoints.get(endpoint);
+        if (stats == null) {
+            stats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+        }
+        // The timer's error count is the server errors; rejected requests are kept apart
+        stats.timer.record(nanos, status >= 500);
+        if (status >= 400 && status < 500) {
+            stats.clientErrors.increment();
+        }
+        stats.statements.add(statements);
+        stats.sqlNanos.add(sqlNanos);
+        if (statements > stats.maxStatements.get()) {
+            stats.maxStatements.accumulateAndGet(statements, Math::max);
+        }
+    }
+
+    // Endpoints ordered by total time spent in them, most expensive first
+    public List<Map<String, Object>> getSnapshot() {
+        List<Map.Entry<String, EndpointStats>> all = new ArrayList<>(endpoints.entrySet());
+        all.sort(Comparator.comparingDouble((Map.Entry<String, EndpointStats> entry) -> entry.getValue().timer.getTotalMs()).reversed());
+
+        List<Map<String, Object>> snapshot = new ArrayList<>();
+        for (Map.Entry<String, EndpointStats> entry : all) {
+            EndpointStats stats = entry.getValue();
+            Map<String, Object> row = stats.timer.toMap();
+            long count = stats.timer.getCount();
+            row.put("serverErrors", row.remove("errors"));
+            row.put("clientErrors", stats.clientErrors.sum());
+            row.put("sqlPerRequest", count == 0 ? 0.0 : (double) stats.statements.sum() / count);
+            row.put("maxSqlPerRequest", stats.maxStatements.get());
+            row.put("sqlMsPerRequest", count == 0 ? 0.0 : stats.sqlNanos.sum() / 1e6 / count);
+            row.put("endpoint", entry.getKey());
+            snapshot.add(row);
+        }
+        return snapshot;
+    }
+
+    private static final class EndpointStats {
+        private final Timer timer = new Timer();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+        private final LongAdder sqlNanos = new LongAdder();
+    }
+}
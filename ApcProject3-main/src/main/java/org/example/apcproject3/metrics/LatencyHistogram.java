@@ -0,0 +1,96 @@
+package org.example.apcproject3.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free latency histogram in microseconds with log-linear buckets: every
+// power of two is split into 8 sub-buckets, so any recorded value is known to
+// within 12.5%. Recording is a few bit operations and one atomic increment,
+// with no allocation. Values above ~2^40 us (12 days) land in the last bucket.
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(bucketOf(micros));
+        totalMicros.add(micros);
+        if (micros > maxMicros.get()) {
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public double getMeanMs() {
+        long count = getCount();
+        return count == 0 ? 0.0 : totalMicros.sum() / 1000.0 / count;
+    }
+
+    public double getMaxMs() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    public double getTotalMs() {
+        return totalMicros.sum() / 1000.0;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), in ms
+    public double getPercentileMs(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0.0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                long upper = i + 1 < BUCKETS ? lowerBoundOf(i + 1) - 1 : maxMicros.get();
+                return Math.min(upper, maxMicros.get()) / 1000.0;
+            }
+        }
+        return getMaxMs();
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowerBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.apcproject3.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Times each request, including authentication, and counts the SQL statements
+// it ran. Runs ahead of the security filter chain. Requests that run more
+// statements or spend longer in SQL than their budget are logged with the
+// controller method that handled them, which is how an N+1 shows up.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    @Autowired
+    private EndpointMetrics endpointMetrics;
+
+    @Value("${sql.budget.statements:30}")
+    private int statementBudget = 30;
+
+    @Value("${sql.budget.ms:500}")
+    private long sqlTimeBudgetMs = 500;
+
+    private final LongAdder budgetViolations = new LongAdder();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long startTime = System.nanoTime();
+        SqlStatementCounter.begin(request.getMethod() + " " + request.getRequestURI());
+        // An exception escaping the chain is reported as a server error
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            SqlStatementCounter sql = SqlStatementCounter.end();
+            endpointMetrics.record(endpointOf(request), System.nanoTime() - startTime, status,
+                    sql.getStatements(), sql.getNanos());
+
+            if (sql.getStatements() > statementBudget || sql.getNanos() > sqlTimeBudgetMs * 1_000_000) {
+                budgetViolations.increment();
+                logger.warn("{} {} ({}) ran {} SQL statements in {}ms, budget is {} statements / {}ms",
+                        request.getMethod(), request.getRequestURI(), handlerOf(request),
+                        sql.getStatements(), sql.getNanos() / 1_000_000, statementBudget, sqlTimeBudgetMs);
+            }
+        }
+    }
+
+    public long getBudgetViolations() {
+        return budgetViolations.sum();
+    }
+
+    public int getStatementBudget() {
+        return statementBudget;
+    }
+
+    public long getSqlTimeBudgetMs() {
+        return sqlTimeBudgetMs;
+    }
+
+    // Matched pattern so /api/bookings/1 and /api/bookings/2 share one entry;
+    // requests no handler matched are grouped together
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "(unmatched)");
+    }
+
+    private static String handlerOf(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return "no handler";
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.apcproject3.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Statements slower than sql.slow-query-ms, kept two ways in fixed-size
+// structures so a burst of slow queries never grows memory: the slowest ones
+// seen so far in a min-heap by duration, which a flood of merely slow queries
+// cannot push out, and the most recent ones in a ring buffer. Ring writers
+// claim a slot with one atomic increment; the heap is only locked by queries
+// slower than its current minimum.
+@Component
+public class SlowQueryLog {
+
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    @Value("${sql.slow-query-ms:100}")
+    private long slowQueryMs = 100;
+
+    private final AtomicReferenceArray<SlowQuery> buffer;
+    private final AtomicLong next = new AtomicLong();
+    private final LongAdder slowQueries = new LongAdder();
+
+    private final PriorityQueue<SlowQuery> slowest;
+    private final int slowestSize;
+    // Duration of the fastest entry once the heap is full; 0 until then
+    private volatile double slowestFloorMs;
+
+    public SlowQueryLog(@Value("${sql.slow-query-log.size:50}") int size) {
+        this.buffer = new AtomicReferenceArray<>(Math.max(1, size));
+        this.slowestSize = Math.max(1, size);
+        this.slowest = new PriorityQueue<>(slowestSize, Comparator.comparingDouble(SlowQuery::getDurationMs));
+    }
+
+    public void record(String sql, long nanos) {
+        if (nanos < slowQueryMs * 1_000_000) {
+            return;
+        }
+        slowQueries.increment();
+        String label = SqlStatementCounter.currentLabel();
+        SlowQuery query = new SlowQuery(
+                sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql,
+                nanos / 1_000_000.0,
+                label != null ? label : Thread.currentThread().getName(),
+                LocalDateTime.now());
+        buffer.set((int) (next.getAndIncrement() % buffer.length()), query);
+
+        if (query.getDurationMs() > slowestFloorMs) {
+            synchronized (slowest) {
+                if (slowest.size() < slowestSize) {
+                    slowest.add(query);
+                } else if (query.getDurationMs() > slowest.peek().getDurationMs()) {
+                    slowest.poll();
+                    slowest.add(query);
+                }
+                if (slowest.size() == slowestSize) {
+                    slowestFloorMs = slowest.peek().getDurationMs();
+                }
+            }
+        }
+    }
+
+    // The slowest statements seen, slowest first
+    public List<SlowQuery> getSlowQueries() {
+        List<SlowQuery> queries;
+        synchronized (slowest) {
+            queries = new ArrayList<>(slowest);
+        }
+        queries.sort(Comparator.comparingDouble(SlowQuery::getDurationMs).reversed());
+        return queries;
+    }
+
+    // The latest slow statements, newest first
+    public List<SlowQuery> getRecentSlowQueries() {
+        List<SlowQuery> queries = new ArrayList<>();
+        long last = next.get();
+        for (long i = last - 1; i >= 0 && i >= last - buffer.length(); i--) {
+            SlowQuery query = buffer.get((int) (i % buffer.length()));
+            if (query != null) {
+                queries.add(query);
+            }
+        }
+        return queries;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("thresholdMs", slowQueryMs);
+        stats.put("slowQueries", slowQueries.sum());
+        stats.put("capacity", buffer.length());
+        return stats;
+    }
+
+    public static class SlowQuery {
+        private final String sql;
+        private final double durationMs;
+        private final String source;
+        private final LocalDateTime recordedAt;
+
+        SlowQuery(String sql, double durationMs, String source, LocalDateTime recordedAt) {
+            this.sql = sql;
+            this.durationMs = durationMs;
+            this.source = source;
+            this.recordedAt = recordedAt;
+        }
+
+        public String getSql() { return sql; }
+        public double getDurationMs() { return durationMs; }
+        public String getSource() { return source; }
+        public LocalDateTime getRecordedAt() { return recordedAt; }
+    }
+}
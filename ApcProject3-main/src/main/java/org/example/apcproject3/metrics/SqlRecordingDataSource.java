@@ -0,0 +1,116 @@
+package org.example.apcproject3.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+// DataSource wrapper that times every statement execution. Connections and
+// statements are wrapped in JDK proxies; each execute* call is timed, counted
+// for the current request (SqlStatementCounter) and offered to the slow query
+// log together with its SQL.
+public class SqlRecordingDataSource extends DelegatingDataSource {
+
+    private final Supplier<SlowQueryLog> slowQueryLogSupplier;
+    private volatile SlowQueryLog slowQueryLog;
+
+    public SqlRecordingDataSource(DataSource target, SlowQueryLog slowQueryLog) {
+        this(target, () -> slowQueryLog);
+    }
+
+    // The log is looked up on the first statement, so wrapping the DataSource
+    // does not force the log bean into existence during post-processing
+    public SqlRecordingDataSource(DataSource target, Supplier<SlowQueryLog> slowQueryLog) {
+        super(target);
+        this.slowQueryLogSupplier = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (isIdentityMethod(method)) {
+                        return identity(proxy, method, args);
+                    }
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof CallableStatement) {
+                        return wrapStatement((Statement) result, CallableStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof PreparedStatement) {
+                        return wrapStatement((Statement) result, PreparedStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof Statement) {
+                        return wrapStatement((Statement) result, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    // preparedSql is null for plain statements, which pass their SQL to execute*
+    private Statement wrapStatement(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            long startTime = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - startTime;
+                String sql = preparedSql != null ? preparedSql
+                        : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : "(batch)";
+                SqlStatementCounter.record(elapsed);
+                slowQueryLog().record(sql, elapsed);
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private SlowQueryLog slowQueryLog() {
+        SlowQueryLog log = slowQueryLog;
+        if (log == null) {
+            log = slowQueryLogSupplier.get();
+            slowQueryLog = log;
+        }
+        return log;
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class && !method.getName().equals("toString");
+    }
+
+    // equals/hashCode compare the proxies themselves, so a wrapped connection
+    // still equals itself when Spring or Hibernate look it up
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.apcproject3.metrics;
+
+// SQL statements and time spent executing them on the current thread between
+// begin() and end(), fed by SqlRecordingDataSource. The label (normally the
+// request line) is attached to slow queries recorded meanwhile.
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<SqlStatementCounter> CURRENT = new ThreadLocal<>();
+
+    private final String label;
+    private int statements;
+    private long nanos;
+
+    private SqlStatementCounter(String label) {
+        this.label = label;
+    }
+
+    public static void begin(String label) {
+        CURRENT.set(new SqlStatementCounter(label));
+    }
+
+    // Totals since begin(), or null when counting was not started
+    public static SqlStatementCounter end() {
+        SqlStatementCounter counter = CURRENT.get();
+        CURRENT.remove();
+        return counter;
+    }
+
+    // Label of the work running on this thread, or null outside begin()/end()
+    static String currentLabel() {
+        SqlStatementCounter counter = CURRENT.get();
+        return counter != null ? counter.label : null;
+    }
+
+    static void record(long elapsedNanos) {
+        SqlStatementCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.statements++;
+            counter.nanos += elapsedNanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
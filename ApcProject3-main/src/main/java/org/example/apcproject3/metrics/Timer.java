@@ -0,0 +1,40 @@
+package org.example.apcproject3.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram plus an error count for one operation
+public class Timer {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    public void record(long nanos, boolean failed) {
+        histogram.recordNanos(nanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    public double getTotalMs() {
+        return histogram.getTotalMs();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("count", histogram.getCount());
+        row.put("errors", errors.sum());
+        row.put("totalMs", histogram.getTotalMs());
+        row.put("meanMs", histogram.getMeanMs());
+        row.put("p50Ms", histogram.getPercentileMs(50));
+        row.put("p95Ms", histogram.getPercentileMs(95));
+        row.put("p99Ms", histogram.getPercentileMs(99));
+        row.put("maxMs", histogram.getMaxMs());
+        return row;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.apcproject3.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Named timers for infrastructure operations, e.g. JWT validation or waiting
+// for a database connection
+@Component
+public class TimerRegistry {
+
+    public static final String JWT_VALIDATION = "jwt.validation";
+    public static final String DB_CONNECTION_ACQUIRE = "db.connection.acquire";
+    public static final String DB_CONNECTION_USAGE = "db.connection.usage";
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public Timer timer(String name) {
+        Timer timer = timers.get(name);
+        return timer != null ? timer : timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    public Map<String, Map<String, Object>> getSnapshot() {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        timers.forEach((name, timer) -> snapshot.put(name, timer.toMap()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.apcproject3.repository;
+
+import org.example.apcproject3.entity.AvailabilityRuleException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AvailabilityRuleExceptionRepository extends JpaRepository<AvailabilityRuleException, Long> {
+
+    boolean existsByRuleIdAndExceptionDate(Long ruleId, LocalDate exceptionDate);
+
+    // Exception rows (ruleId, exceptionDate) of the given rules inside [fromDay, toDay]
+    @Query("SELECT e.rule.id, e.exceptionDate FROM AvailabilityRuleException e WHERE e.rule.id IN :ruleIds AND e.exceptionDate >= :fromDay AND e.exceptionDate <= :toDay")
+    List<Object[]> findExceptionDates(
+        @Param("ruleIds") Collection<Long> ruleIds,
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay
+    );
+
+    @Modifying
+    @Query("DELETE FROM AvailabilityRuleException e WHERE e.rule.id = :ruleId")
+    void deleteByRuleId(@Param("ruleId") Long ruleId);
+}
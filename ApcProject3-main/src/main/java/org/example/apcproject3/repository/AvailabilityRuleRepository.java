@@ -0,0 +1,28 @@
+package org.example.apcproject3.repository;
+
+import org.example.apcproject3.entity.AvailabilityRule;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AvailabilityRuleRepository extends JpaRepository<AvailabilityRule, Long> {
+
+    @EntityGraph("AvailabilityRule.days")
+    List<AvailabilityRule> findByProvider(ServiceProvider provider);
+
+    // Rules of several providers in effect on at least one day of [fromDay, toDay], days fetched in the same query
+    @Query("SELECT DISTINCT r FROM AvailabilityRule r LEFT JOIN FETCH r.daysOfWeek WHERE r.provider.id IN :providerIds AND r.validFrom <= :toDay AND (r.validUntil IS NULL OR r.validUntil >= :fromDay)")
+    List<AvailabilityRule> findActiveRulesForProviders(
+        @Param("providerIds") Collection<Long> providerIds,
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay
+    );
+}
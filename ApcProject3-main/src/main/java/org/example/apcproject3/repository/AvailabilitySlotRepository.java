@@ -3,11 +3,13 @@ package org.example.apcproject3.repository;
 import org.example.apcproject3.entity.AvailabilitySlot;
 import org.example.apcproject3.entity.ServiceProvider;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -35,4 +37,45 @@ public interface AvailabilitySlotRepository extends JpaRepository<AvailabilitySl
         @Param("startTime") LocalDateTime startTime,
         @Param("endTime") LocalDateTime endTime
     );
+
+    // Flips the slot matching a booking window in one statement, served by idx_slot_provider_time
+    @Modifying
+    @Query("UPDATE AvailabilitySlot s SET s.available = :available WHERE s.provider.id = :providerId AND s.startTime = :startTime AND s.endTime = :endTime AND s.available <> :available")
+    int updateAvailabilityForWindow(
+        @Param("providerId") Long providerId,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime,
+        @Param("available") boolean available
+    );
+
+    // Window rows (startTime, endTime) of available slots overlapping a range, used to build availability masks
+    @Query("SELECT s.startTime, s.endTime FROM AvailabilitySlot s WHERE s.provider.id = :providerId AND s.startTime < :endTime AND s.endTime > :startTime AND s.available = true")
+    List<Object[]> findAvailableSlotWindowsOverlapping(
+        @Param("providerId") Long providerId,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
+
+    // Window rows (startTime, endTime) of all slots, available or not, overlapping a range, ordered by start
+    @Query("SELECT s.startTime, s.endTime FROM AvailabilitySlot s WHERE s.provider.id = :providerId AND s.startTime < :endTime AND s.endTime > :startTime ORDER BY s.startTime")
+    List<Object[]> findSlotWindowsOverlapping(
+        @Param("providerId") Long providerId,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
+
+    @Query("SELECT s FROM AvailabilitySlot s WHERE s.provider.id = :providerId AND s.startTime >= :startTime AND s.startTime < :endTime AND s.available = true ORDER BY s.startTime")
+    List<AvailabilitySlot> findAvailableSlotsByProviderIdBetween(
+        @Param("providerId") Long providerId,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
+
+    // Window rows (providerId, startTime, endTime) for several providers at once
+    @Query("SELECT s.provider.id, s.startTime, s.endTime FROM AvailabilitySlot s WHERE s.provider.id IN :providerIds AND s.startTime < :endTime AND s.endTime > :startTime AND s.available = true")
+    List<Object[]> findAvailableSlotWindowsOverlappingForProviders(
+        @Param("providerIds") Collection<Long> providerIds,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
 }
@@ -0,0 +1,38 @@
+package org.example.apcproject3.repository;
+
+import org.example.apcproject3.entity.BookingOutboxEvent;
+import org.example.apcproject3.entity.OutboxEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingOutboxEventRepository extends JpaRepository<BookingOutboxEvent, Long> {
+
+    // Pending events that are due, oldest first
+    @Query("SELECT e FROM BookingOutboxEvent e WHERE e.status = org.example.apcproject3.entity.OutboxEventStatus.PENDING "
+         + "AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<BookingOutboxEvent> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingOutboxEvent e SET e.status = org.example.apcproject3.entity.OutboxEventStatus.DISPATCHED, "
+         + "e.dispatchedAt = :now, e.attempts = e.attempts + 1, e.lastError = null WHERE e.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BookingOutboxEvent e WHERE e.status = org.example.apcproject3.entity.OutboxEventStatus.DISPATCHED "
+         + "AND e.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+
+    long countByStatus(OutboxEventStatus status);
+}
@@ -1,33 +1,52 @@
 package org.example.apcproject3.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.apcproject3.dto.BookingSummary;
 import org.example.apcproject3.entity.Booking;
 import org.example.apcproject3.entity.BookingStatus;
 import org.example.apcproject3.entity.ServiceProvider;
 import org.example.apcproject3.entity.User;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    // Selects only the columns a BookingSummary needs; append the WHERE/ORDER BY
+    String BOOKING_SUMMARY_SELECT = "SELECT new org.example.apcproject3.dto.BookingSummary(b.id, b.status, " +
+            "b.startTime, b.endTime, b.totalAmount, b.description, b.address, b.createdAt, " +
+            "cu.id, cu.firstName, cu.lastName, p.id, pu.firstName, pu.lastName, cat.name) " +
+            "FROM Booking b JOIN b.customer cu JOIN b.provider p JOIN p.user pu LEFT JOIN p.category cat ";
+
+    @EntityGraph("Booking.details")
     List<Booking> findByCustomer(User customer);
 
+    @EntityGraph("Booking.details")
     List<Booking> findByProvider(ServiceProvider provider);
 
+    @EntityGraph("Booking.details")
     List<Booking> findByStatus(BookingStatus status);
 
     List<Booking> findByCustomerAndStatus(User customer, BookingStatus status);
 
     List<Booking> findByProviderAndStatus(ServiceProvider provider, BookingStatus status);
 
+    @EntityGraph("Booking.details")
     @Query("SELECT b FROM Booking b WHERE b.customer = :customer ORDER BY b.createdAt DESC")
     List<Booking> findByCustomerOrderByCreatedAtDesc(@Param("customer") User customer);
 
+    @EntityGraph("Booking.details")
     @Query("SELECT b FROM Booking b WHERE b.provider = :provider ORDER BY b.startTime ASC")
     List<Booking> findByProviderOrderByStartTimeAsc(@Param("provider") ServiceProvider provider);
 
@@ -37,19 +56,94 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
         @Param("endTime") LocalDateTime endTime
     );
 
-    @Query("SELECT b FROM Booking b WHERE b.provider = :provider AND b.startTime >= :startTime AND b.endTime <= :endTime AND b.status != 'CANCELLED'")
+    @Query("SELECT b FROM Booking b WHERE b.provider = :provider AND b.startTime < :endTime AND b.endTime > :startTime AND b.status != 'CANCELLED'")
     List<Booking> findProviderBookingsInTimeRange(
         @Param("provider") ServiceProvider provider,
         @Param("startTime") LocalDateTime startTime,
         @Param("endTime") LocalDateTime endTime
     );
 
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.provider.id = :providerId AND b.startTime < :endTime AND b.endTime > :startTime AND b.status != 'CANCELLED'")
+    long countOverlappingBookings(
+        @Param("providerId") Long providerId,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
+
+    // Interval rows (id, startTime, endTime) used to warm the booking interval index
+    @Query("SELECT b.id, b.startTime, b.endTime FROM Booking b WHERE b.provider.id = :providerId AND b.endTime > :from AND b.status != 'CANCELLED'")
+    List<Object[]> findActiveBookingIntervalsByProviderId(
+        @Param("providerId") Long providerId,
+        @Param("from") LocalDateTime from
+    );
+
+    // Window rows (startTime, endTime) of non-cancelled bookings overlapping a range
+    @Query("SELECT b.startTime, b.endTime FROM Booking b WHERE b.provider.id = :providerId AND b.startTime < :endTime AND b.endTime > :startTime AND b.status != 'CANCELLED'")
+    List<Object[]> findActiveBookingWindowsOverlapping(
+        @Param("providerId") Long providerId,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
+
+    @Query("SELECT b.provider.id, b.startTime, b.endTime FROM Booking b WHERE b.provider.id IN :providerIds AND b.startTime < :endTime AND b.endTime > :startTime AND b.status != 'CANCELLED'")
+    List<Object[]> findActiveBookingWindowsOverlappingForProviders(
+        @Param("providerIds") Collection<Long> providerIds,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
+
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.provider = :provider AND b.status = 'COMPLETED'")
     Long countCompletedBookingsByProvider(@Param("provider") ServiceProvider provider);
 
     // Add missing methods for BookingService
+    @EntityGraph("Booking.details")
     List<Booking> findByCustomerAndStatusIn(User customer, List<BookingStatus> statuses);
 
+    @EntityGraph("Booking.details")
     @Query("SELECT b FROM Booking b WHERE b.provider = :provider ORDER BY b.createdAt DESC")
     List<Booking> findTop5ByProviderOrderByCreatedAtDesc(@Param("provider") ServiceProvider provider);
+
+    // Customer booking history, newest first. Pages are seeks on
+    // idx_booking_customer_created starting after (afterCreatedAt, afterId).
+    @Query(BOOKING_SUMMARY_SELECT + "WHERE cu.id = :customerId AND b.status IN :statuses " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findCustomerHistoryFirstPage(@Param("customerId") Long customerId,
+                                                      @Param("statuses") Collection<BookingStatus> statuses,
+                                                      Pageable pageable);
+
+    @Query(BOOKING_SUMMARY_SELECT + "WHERE cu.id = :customerId AND b.status IN :statuses " +
+           "AND (b.createdAt < :afterCreatedAt OR (b.createdAt = :afterCreatedAt AND b.id < :afterId)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findCustomerHistoryAfter(@Param("customerId") Long customerId,
+                                                  @Param("statuses") Collection<BookingStatus> statuses,
+                                                  @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    // Provider schedule in start time order, paged on idx_booking_provider_start
+    @Query(BOOKING_SUMMARY_SELECT + "WHERE p.id = :providerId ORDER BY b.startTime ASC, b.id ASC")
+    List<BookingSummary> findProviderScheduleFirstPage(@Param("providerId") Long providerId, Pageable pageable);
+
+    @Query(BOOKING_SUMMARY_SELECT + "WHERE p.id = :providerId " +
+           "AND (b.startTime > :afterStartTime OR (b.startTime = :afterStartTime AND b.id > :afterId)) " +
+           "ORDER BY b.startTime ASC, b.id ASC")
+    List<BookingSummary> findProviderScheduleAfter(@Param("providerId") Long providerId,
+                                                   @Param("afterStartTime") LocalDateTime afterStartTime,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    @Query(BOOKING_SUMMARY_SELECT + "WHERE p.id = :providerId ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findRecentSummariesByProviderId(@Param("providerId") Long providerId, Pageable pageable);
+
+    @Query(BOOKING_SUMMARY_SELECT + "WHERE b.status = :status ORDER BY b.startTime ASC")
+    List<BookingSummary> findSummariesByStatus(@Param("status") BookingStatus status);
+
+    // Every booking in id order for exports. Rows are read through a
+    // forward-only cursor in fetch-size batches; close the stream when done.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(BOOKING_SUMMARY_SELECT + "ORDER BY b.id")
+    Stream<BookingSummary> streamAllSummaries();
 }
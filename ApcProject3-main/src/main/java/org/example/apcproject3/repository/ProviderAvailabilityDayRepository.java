@@ -0,0 +1,49 @@
+package org.example.apcproject3.repository;
+
+import org.example.apcproject3.entity.ProviderAvailabilityDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProviderAvailabilityDayRepository extends JpaRepository<ProviderAvailabilityDay, Long> {
+
+    Optional<ProviderAvailabilityDay> findByProviderIdAndDay(Long providerId, LocalDate day);
+
+    @Query("SELECT d FROM ProviderAvailabilityDay d WHERE d.providerId = :providerId AND d.day >= :fromDay AND d.day <= :toDay")
+    List<ProviderAvailabilityDay> findByProviderIdAndDayRange(
+        @Param("providerId") Long providerId,
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay
+    );
+
+    @Query("SELECT d FROM ProviderAvailabilityDay d WHERE d.providerId IN :providerIds AND d.day = :day")
+    List<ProviderAvailabilityDay> findByProviderIdsAndDay(
+        @Param("providerIds") Collection<Long> providerIds,
+        @Param("day") LocalDate day
+    );
+
+    // Drops the packed days of a provider from a day on, so they are recomputed on next read
+    @Modifying
+    @Query("DELETE FROM ProviderAvailabilityDay d WHERE d.providerId = :providerId AND d.day >= :fromDay")
+    int deleteByProviderIdFromDay(
+        @Param("providerId") Long providerId,
+        @Param("fromDay") LocalDate fromDay
+    );
+
+    // Drops the packed days of a provider in a range, so they are recomputed on next read
+    @Modifying
+    @Query("DELETE FROM ProviderAvailabilityDay d WHERE d.providerId = :providerId AND d.day >= :fromDay AND d.day <= :toDay")
+    int deleteByProviderIdAndDayRange(
+        @Param("providerId") Long providerId,
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay
+    );
+}
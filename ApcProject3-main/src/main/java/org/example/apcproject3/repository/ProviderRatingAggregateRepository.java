@@ -0,0 +1,44 @@
+package org.example.apcproject3.repository;
+
+import org.example.apcproject3.entity.ProviderRatingAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProviderRatingAggregateRepository extends JpaRepository<ProviderRatingAggregate, Long> {
+
+    // Applies a review write to the totals in place; the row lock taken by the
+    // UPDATE serializes concurrent writes for the same provider
+    @Modifying
+    @Query("UPDATE ProviderRatingAggregate a SET a.ratingSum = a.ratingSum + :sumDelta, a.ratingCount = a.ratingCount + :countDelta, "
+         + "a.stars1 = a.stars1 + :stars1, a.stars2 = a.stars2 + :stars2, a.stars3 = a.stars3 + :stars3, "
+         + "a.stars4 = a.stars4 + :stars4, a.stars5 = a.stars5 + :stars5, a.updatedAt = :now WHERE a.providerId = :providerId")
+    int applyDelta(
+        @Param("providerId") Long providerId,
+        @Param("sumDelta") long sumDelta,
+        @Param("countDelta") long countDelta,
+        @Param("stars1") long stars1,
+        @Param("stars2") long stars2,
+        @Param("stars3") long stars3,
+        @Param("stars4") long stars4,
+        @Param("stars5") long stars5,
+        @Param("now") LocalDateTime now
+    );
+
+    // Current totals (ratingSum, ratingCount), read from the database rather than the persistence context
+    @Query("SELECT a.ratingSum, a.ratingCount FROM ProviderRatingAggregate a WHERE a.providerId = :providerId")
+    List<Object[]> findTotals(@Param("providerId") Long providerId);
+
+    // Stored totals of every provider, laid out like the ReviewRepository aggregate rows
+    // (providerId, count, sum, stars1..stars5) so reconciliation can spot drift without
+    // loading the entities
+    @Query("SELECT a.providerId, a.ratingCount, a.ratingSum, a.stars1, a.stars2, a.stars3, a.stars4, a.stars5 "
+         + "FROM ProviderRatingAggregate a")
+    List<Object[]> findAllTotals();
+}
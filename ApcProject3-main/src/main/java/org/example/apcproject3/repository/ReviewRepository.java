@@ -3,6 +3,7 @@ package org.example.apcproject3.repository;
 import org.example.apcproject3.entity.Review;
 import org.example.apcproject3.entity.ServiceProvider;
 import org.example.apcproject3.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,9 +16,11 @@ import java.util.Optional;
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     // Find reviews by provider
+    @EntityGraph("Review.details")
     List<Review> findByProviderOrderByCreatedAtDesc(ServiceProvider provider);
 
     // Find reviews by customer
+    @EntityGraph("Review.details")
     List<Review> findByCustomerOrderByCreatedAtDesc(User customer);
 
     // Find review by booking (one review per booking)
@@ -33,12 +36,29 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     // Count reviews for a provider
     long countByProvider(ServiceProvider provider);
 
+    // Rating totals per provider (providerId, count, sum, 1..5 star counts), used to reconcile the aggregates
+    @Query("SELECT r.provider.id, COUNT(r), SUM(r.rating), "
+         + "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) FROM Review r GROUP BY r.provider.id")
+    List<Object[]> aggregateRatingsByProvider();
+
+    // Same totals for a single provider; no row when the provider has no reviews
+    @Query("SELECT r.provider.id, COUNT(r), SUM(r.rating), "
+         + "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) FROM Review r WHERE r.provider.id = :providerId GROUP BY r.provider.id")
+    List<Object[]> aggregateRatingsForProvider(@Param("providerId") Long providerId);
+
     // Find recent reviews (for homepage/dashboard)
+    @EntityGraph("Review.details")
     List<Review> findTop10ByOrderByCreatedAtDesc();
 
     // Find reviews by rating
+    @EntityGraph("Review.details")
     List<Review> findByRatingOrderByCreatedAtDesc(Integer rating);
 
     // Find reviews with rating greater than or equal to specified value
+    @EntityGraph("Review.details")
     List<Review> findByRatingGreaterThanEqualOrderByCreatedAtDesc(Integer minRating);
 }
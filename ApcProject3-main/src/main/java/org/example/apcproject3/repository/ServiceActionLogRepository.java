@@ -0,0 +1,15 @@
+package org.example.apcproject3.repository;
+
+import org.example.apcproject3.entity.ServiceActionLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ServiceActionLogRepository extends JpaRepository<ServiceActionLog, Long> {
+
+    List<ServiceActionLog> findByBookingIdOrderByCreatedAtAsc(Long bookingId);
+
+    List<ServiceActionLog> findByProviderIdOrderByCreatedAtDesc(Long providerId);
+}
@@ -1,9 +1,14 @@
 package org.example.apcproject3.repository;
 
+import jakarta.persistence.LockModeType;
+import org.example.apcproject3.dto.ProviderCard;
 import org.example.apcproject3.entity.ServiceProvider;
 import org.example.apcproject3.entity.ServiceCategory;
 import org.example.apcproject3.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,25 +18,58 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ServiceProviderRepository extends JpaRepository<ServiceProvider, Long> {
+public interface ServiceProviderRepository extends JpaRepository<ServiceProvider, Long>, ServiceProviderSearchRepository {
+
+    // Selects only the columns a ProviderCard needs; append the WHERE/ORDER BY
+    String PROVIDER_CARD_SELECT = "SELECT new org.example.apcproject3.dto.ProviderCard(sp.id, u.firstName, u.lastName, " +
+            "c.id, c.name, sp.bio, sp.rating, sp.totalReviews, sp.hourlyRate, sp.verified) " +
+            "FROM ServiceProvider sp JOIN sp.user u LEFT JOIN sp.category c ";
 
     Optional<ServiceProvider> findByUser(User user);
 
+    // Row lock that serializes rating writes and reconciliation for one provider
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT sp FROM ServiceProvider sp WHERE sp.id = :id")
+    Optional<ServiceProvider> findByIdForUpdate(@Param("id") Long id);
+
+    @EntityGraph("ServiceProvider.details")
     List<ServiceProvider> findByCategory(ServiceCategory category);
 
+    @EntityGraph("ServiceProvider.details")
     List<ServiceProvider> findByAvailableTrue();
 
+    @EntityGraph("ServiceProvider.details")
     List<ServiceProvider> findByVerifiedTrue();
 
+    @EntityGraph("ServiceProvider.details")
     @Query("SELECT sp FROM ServiceProvider sp WHERE sp.category = :category AND sp.available = true")
     List<ServiceProvider> findAvailableProvidersByCategory(@Param("category") ServiceCategory category);
 
+    @EntityGraph("ServiceProvider.details")
     @Query("SELECT sp FROM ServiceProvider sp WHERE sp.rating >= :minRating ORDER BY sp.rating DESC")
     List<ServiceProvider> findByRatingGreaterThanEqualOrderByRatingDesc(@Param("minRating") BigDecimal minRating);
 
+    @Query(PROVIDER_CARD_SELECT + "WHERE sp.rating >= :minRating ORDER BY sp.rating DESC, sp.id")
+    List<ProviderCard> findTopRatedProviderCards(@Param("minRating") BigDecimal minRating, Pageable pageable);
+
+    @Query(PROVIDER_CARD_SELECT + "WHERE sp.available = true ORDER BY sp.id")
+    List<ProviderCard> findAvailableProviderCards();
+
+    @Query(PROVIDER_CARD_SELECT + "WHERE c.id = :categoryId AND sp.available = true ORDER BY sp.id")
+    List<ProviderCard> findAvailableProviderCardsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query(PROVIDER_CARD_SELECT + "WHERE sp.hourlyRate BETWEEN :minRate AND :maxRate ORDER BY sp.id")
+    List<ProviderCard> findProviderCardsByHourlyRateBetween(@Param("minRate") BigDecimal minRate, @Param("maxRate") BigDecimal maxRate);
+
+    @EntityGraph("ServiceProvider.details")
     @Query("SELECT sp FROM ServiceProvider sp WHERE sp.hourlyRate BETWEEN :minRate AND :maxRate")
     List<ServiceProvider> findByHourlyRateBetween(@Param("minRate") BigDecimal minRate, @Param("maxRate") BigDecimal maxRate);
 
+    @EntityGraph("ServiceProvider.details")
     @Query("SELECT sp FROM ServiceProvider sp WHERE sp.category.id = :categoryId AND sp.available = true AND sp.verified = true ORDER BY sp.rating DESC")
     List<ServiceProvider> findTopRatedProvidersByCategory(@Param("categoryId") Long categoryId);
+
+    // Search candidate rows (id, firstName, lastName, rating, hourlyRate, verified) of a category
+    @Query("SELECT sp.id, u.firstName, u.lastName, sp.rating, sp.hourlyRate, sp.verified FROM ServiceProvider sp JOIN sp.user u WHERE sp.category.id = :categoryId AND sp.available = true")
+    List<Object[]> findSearchCandidatesByCategory(@Param("categoryId") Long categoryId);
 }
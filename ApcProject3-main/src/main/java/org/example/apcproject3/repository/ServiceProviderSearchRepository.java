@@ -0,0 +1,17 @@
+package org.example.apcproject3.repository;
+
+import org.example.apcproject3.dto.ProviderCard;
+import org.example.apcproject3.dto.ProviderSearchCriteria;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Composite provider search, implemented with a query built from the filters actually set
+public interface ServiceProviderSearchRepository {
+
+    // Providers matching the criteria in sort order, providers without a sort
+    // value last, starting after the row (afterValue, afterId) of the previous
+    // page; afterValue is null when that row had no sort value. Pass nulls for
+    // the first page.
+    List<ProviderCard> search(ProviderSearchCriteria criteria, BigDecimal afterValue, Long afterId, int limit);
+}
@@ -0,0 +1,83 @@
+package org.example.apcproject3.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.example.apcproject3.dto.ProviderCard;
+import org.example.apcproject3.dto.ProviderSearchCriteria;
+import org.example.apcproject3.dto.ProviderSort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ServiceProviderSearchRepositoryImpl implements ServiceProviderSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProviderCard> search(ProviderSearchCriteria criteria, BigDecimal afterValue, Long afterId, int limit) {
+        boolean descending = criteria.getSort() != ProviderSort.PRICE_ASC;
+        String sortKey = criteria.getSort() == ProviderSort.RATING ? "sp.rating" : "sp.hourlyRate";
+
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+
+        // Equality filters first, matching the leading columns of the provider indexes
+        if (criteria.getCategoryId() != null) {
+            conditions.add("sp.category.id = :categoryId");
+            params.put("categoryId", criteria.getCategoryId());
+        }
+        if (criteria.getAvailable() != null) {
+            conditions.add("sp.available = :available");
+            params.put("available", criteria.getAvailable());
+        }
+        if (criteria.getVerified() != null) {
+            conditions.add("sp.verified = :verified");
+            params.put("verified", criteria.getVerified());
+        }
+        if (criteria.getMinRating() != null) {
+            conditions.add("sp.rating >= :minRating");
+            params.put("minRating", criteria.getMinRating());
+        }
+        if (criteria.getMinRate() != null) {
+            conditions.add("sp.hourlyRate >= :minRate");
+            params.put("minRate", criteria.getMinRate());
+        }
+        if (criteria.getMaxRate() != null) {
+            conditions.add("sp.hourlyRate <= :maxRate");
+            params.put("maxRate", criteria.getMaxRate());
+        }
+
+        // Seek past the last row of the previous page; id breaks ties. Rows
+        // without a sort value come last in either direction, so a page that
+        // ended on a value still has all of them ahead, and one that ended in
+        // them only has the rest of them, by id.
+        if (afterId != null) {
+            if (afterValue != null) {
+                String beyond = descending ? " < " : " > ";
+                conditions.add("(" + sortKey + beyond + ":afterValue OR (" + sortKey + " = :afterValue AND sp.id > :afterId) OR "
+                    + sortKey + " IS NULL)");
+                params.put("afterValue", afterValue);
+            } else {
+                conditions.add(sortKey + " IS NULL AND sp.id > :afterId");
+            }
+            params.put("afterId", afterId);
+        }
+
+        StringBuilder jpql = new StringBuilder(ServiceProviderRepository.PROVIDER_CARD_SELECT);
+        if (!conditions.isEmpty()) {
+            jpql.append("WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY ").append(sortKey).append(descending ? " DESC" : " ASC")
+            .append(" NULLS LAST, sp.id ASC");
+
+        TypedQuery<ProviderCard> query = entityManager.createQuery(jpql.toString(), ProviderCard.class);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+}
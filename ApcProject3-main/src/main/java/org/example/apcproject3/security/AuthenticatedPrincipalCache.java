@@ -0,0 +1,149 @@
+package org.example.apcproject3.security;
+
+import org.example.apcproject3.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Short-lived cache from a validated JWT to the user it authenticates, so a
+// client sending the same token again skips the signature check and the user
+// lookup. Entries expire after the TTL or with the token, whichever comes
+// first. Changes to a user drop that user's entries once they commit.
+@Component
+public class AuthenticatedPrincipalCache {
+
+    @Value("${jwt.principal-cache.ttl-ms:60000}")
+    private long ttlMs = 60000;
+
+    @Value("${jwt.principal-cache.max-size:10000}")
+    private int maxSize = 10000;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped on every user invalidation so a lookup that raced with a user
+    // change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserDetails get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(token, entry);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.principal;
+    }
+
+    // Read before loading the principal and pass to put()
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    public void put(String token, UserDetails principal, long tokenExpiresAt, long loadedGeneration) {
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(now + ttlMs, tokenExpiresAt);
+        if (expiresAt <= now) {
+            return;
+        }
+
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(entry -> entry.expiresAt <= now);
+            if (entries.size() >= maxSize) {
+                // Still full of live entries: serve this token uncached
+                return;
+            }
+        }
+
+        Long userId = principal instanceof User ? ((User) principal).getId() : null;
+        Entry entry = new Entry(principal, userId, expiresAt);
+        entries.put(token, entry);
+        if (generation.get() != loadedGeneration) {
+            entries.remove(token, entry);
+        }
+    }
+
+    public void evictToken(String token) {
+        if (entries.remove(token) != null) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    // Drops every cached token of the user right away
+    public void evictUsername(String username) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> {
+            boolean matches = username.equals(entry.principal.getUsername());
+            if (matches) {
+                evictions.incrementAndGet();
+            }
+            return matches;
+        });
+    }
+
+    // Drops every cached token of the user after the surrounding transaction commits
+    public void evictUser(Long userId) {
+        Runnable drop = () -> {
+            generation.incrementAndGet();
+            entries.values().removeIf(entry -> {
+                boolean matches = userId.equals(entry.userId);
+                if (matches) {
+                    evictions.incrementAndGet();
+                }
+                return matches;
+            });
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop.run();
+                }
+            });
+        } else {
+            drop.run();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("size", entries.size());
+        return stats;
+    }
+
+    private static final class Entry {
+        private final UserDetails principal;
+        private final Long userId;
+        private final long expiresAt;
+
+        private Entry(UserDetails principal, Long userId, long expiresAt) {
+            this.principal = principal;
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,16 +1,18 @@
 package org.example.apcproject3.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.example.apcproject3.metrics.TimerRegistry;
+import org.example.apcproject3.service.CustomUserDetailsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -27,7 +29,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
+
+    @Autowired
+    private TimerRegistry timerRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -35,10 +43,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = StringUtils.hasText(jwt) ? resolvePrincipal(jwt) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -52,6 +58,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Cached principal for a token seen recently, otherwise validates the token
+    // and loads the user. Null when the token is not valid.
+    private UserDetails resolvePrincipal(String jwt) {
+        UserDetails cached = principalCache.get(jwt);
+        if (cached != null) {
+            // Blacklisting evicts the entry, but a logout racing this lookup must still win
+            return tokenProvider.isTokenBlacklisted(jwt) ? null : cached;
+        }
+
+        long startTime = System.nanoTime();
+        Claims claims = tokenProvider.parseAndValidate(jwt);
+        timerRegistry.timer(TimerRegistry.JWT_VALIDATION).record(System.nanoTime() - startTime, claims == null);
+        if (claims == null) {
+            return null;
+        }
+
+        // Tokens carry the user id, so the user is one primary key lookup;
+        // older tokens fall back to the username/email lookup
+        long generation = principalCache.currentGeneration();
+        Long userId = JwtTokenProvider.getUserId(claims);
+        UserDetails userDetails = userId != null
+                ? userDetailsService.loadUserById(userId)
+                : userDetailsService.loadUserByUsername(claims.getSubject());
+        principalCache.put(jwt, userDetails, claims.getExpiration().getTime(), generation);
+        return userDetails;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -3,8 +3,12 @@ package org.example.apcproject3.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
+import org.example.apcproject3.entity.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,61 +16,77 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 @Component
 public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    // iat is whole seconds; revocation needs the issue time to the millisecond
+    public static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
 
-    // Thread-safe blacklist for token invalidation
-    private final ConcurrentMap<String, Date> tokenBlacklist = new ConcurrentHashMap<>();
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationStore revocationStore;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Built once; both are immutable and safe to share between threads
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
 
-        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
+        long now = System.currentTimeMillis();
+        Date expiryDate = new Date(now + jwtExpirationInMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
-    }
-
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+                .setIssuedAt(new Date(now))
+                .claim(ISSUED_AT_MS_CLAIM, now)
+                .setExpiration(expiryDate);
+
+        if (userPrincipal instanceof User) {
+            User user = (User) userPrincipal;
+            builder.claim(USER_ID_CLAIM, user.getId())
+                   .claim(ROLE_CLAIM, user.getRole().name());
+        }
 
-        return claims.getSubject();
+        return builder.signWith(signingKey, SignatureAlgorithm.HS512).compact();
     }
 
-    public boolean validateToken(String authToken) {
+    // Checks the blacklist, verifies the signature and expiry, and returns the
+    // claims, all from a single parse. Null when the token is not valid.
+    public Claims parseAndValidate(String authToken) {
         try {
             // Check if token is blacklisted
             if (isTokenBlacklisted(authToken)) {
                 logger.error("Token is blacklisted");
-                return false;
+                return null;
             }
 
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(authToken).getBody();
+            if (claims.getIssuedAt() != null
+                    && revocationStore.isUserRevoked(claims.getSubject(), getIssuedAtMs(claims))) {
+                logger.error("Token is blacklisted");
+                return null;
+            }
+            return claims;
         } catch (SecurityException ex) {
             logger.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -78,39 +98,56 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty");
         }
-        return false;
+        return null;
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseAndValidate(authToken) != null;
+    }
+
+    public String getUsernameFromToken(String token) {
+        return getClaimsFromToken(token).getSubject();
+    }
+
+    public Claims getClaimsFromToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    // User id claim, or null for tokens issued before it was added
+    public static Long getUserId(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        return userId != null ? userId.longValue() : null;
+    }
+
+    // Issue time in epoch ms; tokens issued before the claim was added fall
+    // back to iat, which rounds down and so errs towards revoking
+    static long getIssuedAtMs(Claims claims) {
+        Number issuedAtMs = claims.get(ISSUED_AT_MS_CLAIM, Number.class);
+        return issuedAtMs != null ? issuedAtMs.longValue() : claims.getIssuedAt().getTime();
     }
 
     public void blacklistToken(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = getClaimsFromToken(token);
 
-            tokenBlacklist.put(token, claims.getExpiration());
+            if (revocationStore.revokeToken(token, claims.getSubject(), claims.getExpiration().getTime())) {
+                // The store was full and revoked all of the user's tokens instead
+                principalCache.evictUsername(claims.getSubject());
+            } else {
+                principalCache.evictToken(token);
+            }
         } catch (Exception e) {
             logger.error("Error blacklisting token: {}", e.getMessage());
         }
     }
 
-    private boolean isTokenBlacklisted(String token) {
-        Date expirationDate = tokenBlacklist.get(token);
-        if (expirationDate != null) {
-            // Remove expired blacklisted tokens
-            if (expirationDate.before(new Date())) {
-                tokenBlacklist.remove(token);
-                return false;
-            }
-            return true;
-        }
-        return false;
+    // Revokes every token issued to the user so far
+    public void blacklistAllTokens(String username) {
+        revocationStore.revokeUser(username);
+        principalCache.evictUsername(username);
     }
 
-    // Clean up expired blacklisted tokens periodically
-    public void cleanupExpiredTokens() {
-        Date now = new Date();
-        tokenBlacklist.entrySet().removeIf(entry -> entry.getValue().before(now));
+    public boolean isTokenBlacklisted(String token) {
+        return revocationStore.isTokenRevoked(token);
     }
 }
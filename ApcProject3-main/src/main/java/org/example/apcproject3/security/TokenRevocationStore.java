@@ -0,0 +1,118 @@
+package org.example.apcproject3.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Revoked JWTs. Single tokens are keyed by a 128-bit hash of the token instead
+// of the token itself and are kept only until the token would have expired
+// anyway. "Log out everywhere" is one entry per user: every token of that
+// user issued before the revocation time is rejected. The per-token map has a
+// hard size limit; once it is full a revocation falls back to revoking all of
+// the user's tokens, so memory stays bounded without ever letting a revoked
+// token through.
+@Component
+public class TokenRevocationStore {
+
+    @Value("${jwt.revocation.max-size:100000}")
+    private int maxSize = 100000;
+
+    @Value("${jwt.expiration:86400000}")
+    private long tokenLifetimeMs = 86400000;
+
+    // Token hash -> expiry of the token (epoch ms)
+    private final ConcurrentMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // Username -> tokens issued before this instant (epoch ms) are revoked
+    private final ConcurrentMap<String, UserRevocation> revokedUsers = new ConcurrentHashMap<>();
+
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong swept = new AtomicLong();
+
+    // True when the store was full and every token of the user was revoked
+    // instead, so callers can drop whatever they cached for the user
+    public boolean revokeToken(String token, String username, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+        if (revokedTokens.size() >= maxSize) {
+            sweep();
+            if (revokedTokens.size() >= maxSize) {
+                overflows.incrementAndGet();
+                revokeUser(username);
+                return true;
+            }
+        }
+        revokedTokens.put(hash(token), expiresAt);
+        return false;
+    }
+
+    public void revokeUser(String username) {
+        long now = System.currentTimeMillis();
+        revokedUsers.put(username, new UserRevocation(now, now + tokenLifetimeMs));
+    }
+
+    // Cheap check that needs no parsing; covers single-token revocations only
+    public boolean isTokenRevoked(String token) {
+        Long expiresAt = revokedTokens.get(hash(token));
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    // issuedAtMs in epoch ms; a token issued right after "log out everywhere"
+    // in the same second is still valid
+    public boolean isUserRevoked(String username, long issuedAtMs) {
+        UserRevocation revocation = revokedUsers.get(username);
+        return revocation != null && issuedAtMs < revocation.revokedAtMs;
+    }
+
+    // Drops entries whose tokens have expired in the meantime
+    @Scheduled(fixedDelayString = "${jwt.revocation.sweep-ms:60000}",
+               initialDelayString = "${jwt.revocation.sweep-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        int before = revokedTokens.size() + revokedUsers.size();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(revocation -> revocation.keepUntil <= now);
+        swept.addAndGet(Math.max(0, before - revokedTokens.size() - revokedUsers.size()));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("revokedTokens", revokedTokens.size());
+        stats.put("revokedUsers", revokedUsers.size());
+        stats.put("maxSize", maxSize);
+        stats.put("overflows", overflows.get());
+        stats.put("swept", swept.get());
+        return stats;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class UserRevocation {
+        private final long revokedAtMs;
+        private final long keepUntil;
+
+        private UserRevocation(long revokedAtMs, long keepUntil) {
+            this.revokedAtMs = revokedAtMs;
+            this.keepUntil = keepUntil;
+        }
+    }
+}
@@ -0,0 +1,558 @@
+package org.example.apcproject3.service;
+
+import jakarta.annotation.PostConstruct;
+import org.example.apcproject3.dto.AvailabilityWindow;
+import org.example.apcproject3.entity.ProviderAvailabilityDay;
+import org.example.apcproject3.repository.AvailabilitySlotRepository;
+import org.example.apcproject3.repository.BookingRepository;
+import org.example.apcproject3.repository.ProviderAvailabilityDayRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+// Per-provider availability calendar: one 96-bit mask per provider-day at
+// 15-minute granularity. A bit is set when the block lies inside an available
+// slot or recurring rule occurrence and no active booking overlaps it. Masks
+// are cached in memory (bounded, future days only) and persisted packed in provider_availability_days;
+// they are recomputed from slots, rules and bookings whenever any of them
+// changes. Bookings only mark their days dirty (one DELETE on the request
+// path); dirty days are recomputed on their next read and re-persisted by a
+// background flush.
+@Service
+@Transactional
+public class AvailabilityCalendarService {
+
+    public static final int BLOCK_MINUTES = 15;
+    public static final int BLOCKS_PER_DAY = 24 * 60 / BLOCK_MINUTES;
+
+    private static final int WORDS_PER_DAY = (BLOCKS_PER_DAY + 63) / 64;
+    private static final int MASK_BYTES = BLOCKS_PER_DAY / 8;
+
+    @Autowired
+    private AvailabilitySlotRepository availabilitySlotRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ProviderAvailabilityDayRepository providerAvailabilityDayRepository;
+
+    @Autowired
+    private AvailabilityRuleExpander availabilityRuleExpander;
+
+    @Value("${availability.calendar.cache-max-days:10000}")
+    private int cacheMaxDays = 10000;
+
+    // Bounded and least-recently-used first; past days are never kept
+    private final DayMaskCache masks = new DayMaskCache();
+
+    private final List<BiConsumer<Long, LocalDate>> listeners = new CopyOnWriteArrayList<>();
+
+    // Days marked dirty since the last flush; their packed rows are already gone
+    private final Set<DayKey> dirtyDays = ConcurrentHashMap.newKeySet();
+
+    // Bumped whenever masks are dropped so a load that raced with the change is not installed
+    private final AtomicLong generation = new AtomicLong();
+
+    // True when every 15-minute block touched by [startTime, endTime) is free
+    @Transactional(readOnly = true)
+    public boolean isFree(Long providerId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!endTime.isAfter(startTime)) {
+            return false;
+        }
+
+        LocalDate firstDay = startTime.toLocalDate();
+        LocalDate lastDay = endTime.minusNanos(1).toLocalDate();
+        Map<LocalDate, long[]> dayMasks = loadDays(providerId, firstDay, lastDay);
+
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            int from = day.equals(firstDay) ? floorBlock(startTime.toLocalTime()) : 0;
+            int to = day.equals(lastDay) ? ceilBlock(endTime, day) : BLOCKS_PER_DAY;
+            if (!allSet(dayMasks.get(day), from, to)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasFreeTime(Long providerId, LocalDate day) {
+        long[] mask = loadDays(providerId, day, day).get(day);
+        for (long word : mask) {
+            if (word != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Free windows over a range of days; windows running across midnight are merged
+    @Transactional(readOnly = true)
+    public List<AvailabilityWindow> findFreeWindows(Long providerId, LocalDate fromDay, int days) {
+        LocalDate toDay = fromDay.plusDays(days - 1L);
+        Map<LocalDate, long[]> dayMasks = loadDays(providerId, fromDay, toDay);
+
+        List<AvailabilityWindow> windows = new ArrayList<>();
+        AvailabilityWindow open = null;
+        for (LocalDate day = fromDay; !day.isAfter(toDay); day = day.plusDays(1)) {
+            long[] mask = dayMasks.get(day);
+            int start = nextSetBit(mask, 0);
+            while (start >= 0) {
+                int end = nextClearBit(mask, start);
+                LocalDateTime windowStart = blockTime(day, start);
+                LocalDateTime windowEnd = blockTime(day, end);
+
+                if (open != null && open.getEndTime().equals(windowStart)) {
+                    open.setEndTime(windowEnd);
+                } else {
+                    open = new AvailabilityWindow(windowStart, windowEnd);
+                    windows.add(open);
+                }
+                start = end < BLOCKS_PER_DAY ? nextSetBit(mask, end) : -1;
+            }
+        }
+        return windows;
+    }
+
+    // Day masks of several providers for one day, loaded with at most three
+    // queries for whatever is not in memory yet
+    @Transactional(readOnly = true)
+    public Map<Long, long[]> findDayMasks(Collection<Long> providerIds, LocalDate day) {
+        long loadedGeneration = generation.get();
+        Map<Long, long[]> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long providerId : providerIds) {
+            long[] mask = masks.get(new DayKey(providerId, day));
+            if (mask != null) {
+                result.put(providerId, mask);
+            } else {
+                missing.add(providerId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        for (ProviderAvailabilityDay row : providerAvailabilityDayRepository.findByProviderIdsAndDay(missing, day)) {
+            result.put(row.getProviderId(), cache(row.getProviderId(), day, unpack(row.getFreeMask()), loadedGeneration));
+            missing.remove(row.getProviderId());
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        Map<Long, Map<LocalDate, long[]>> computed = new HashMap<>();
+        for (Long providerId : missing) {
+            Map<LocalDate, long[]> dayMasks = new HashMap<>();
+            dayMasks.put(day, new long[WORDS_PER_DAY]);
+            computed.put(providerId, dayMasks);
+        }
+        for (Object[] slot : availabilitySlotRepository.findAvailableSlotWindowsOverlappingForProviders(missing, dayStart, dayEnd)) {
+            applyWindow(computed.get((Long) slot[0]), (LocalDateTime) slot[1], (LocalDateTime) slot[2], true);
+        }
+        availabilityRuleExpander.expand(missing, day, day).forEach((providerId, windows) -> windows.forEach(
+            window -> applyWindow(computed.get(providerId), window.getStartTime(), window.getEndTime(), true)));
+        for (Object[] booking : bookingRepository.findActiveBookingWindowsOverlappingForProviders(missing, dayStart, dayEnd)) {
+            applyWindow(computed.get((Long) booking[0]), (LocalDateTime) booking[1], (LocalDateTime) booking[2], false);
+        }
+        computed.forEach((providerId, dayMasks) -> result.put(providerId, cache(providerId, day, dayMasks.get(day), loadedGeneration)));
+        return result;
+    }
+
+    // Listeners are told about every provider-day whose mask changed, after commit
+    public void addChangeListener(BiConsumer<Long, LocalDate> listener) {
+        listeners.add(listener);
+    }
+
+    // Recomputes the masks of every day touched by [startTime, endTime) from the
+    // current slots, rules and bookings, persists them, and publishes them to the
+    // in-memory calendar once the transaction commits
+    public void refresh(Long providerId, LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDate firstDay = startTime.toLocalDate();
+        LocalDate lastDay = endTime.isAfter(startTime) ? endTime.minusNanos(1).toLocalDate() : firstDay;
+        long loadedGeneration = generation.get();
+        Map<LocalDate, long[]> computed = computeDays(providerId, firstDay, lastDay);
+
+        Map<LocalDate, ProviderAvailabilityDay> stored = new HashMap<>();
+        for (ProviderAvailabilityDay row : providerAvailabilityDayRepository
+                .findByProviderIdAndDayRange(providerId, firstDay, lastDay)) {
+            stored.put(row.getDay(), row);
+        }
+
+        List<ProviderAvailabilityDay> changed = new ArrayList<>();
+        for (Map.Entry<LocalDate, long[]> entry : computed.entrySet()) {
+            ProviderAvailabilityDay row = stored.get(entry.getKey());
+            if (row == null) {
+                row = new ProviderAvailabilityDay(providerId, entry.getKey(), pack(entry.getValue()));
+            } else {
+                row.setFreeMask(pack(entry.getValue()));
+            }
+            changed.add(row);
+        }
+        providerAvailabilityDayRepository.saveAll(changed);
+
+        LocalDate today = LocalDate.now();
+        Runnable publish = () -> computed.forEach((day, mask) -> {
+            if (!day.isBefore(today)) {
+                // An invalidation since computeDays may have made these masks
+                // stale; drop the day instead so its next read recomputes it
+                DayKey key = new DayKey(providerId, day);
+                if (generation.get() == loadedGeneration) {
+                    masks.put(key, mask);
+                } else {
+                    masks.remove(key);
+                }
+            }
+            listeners.forEach(listener -> listener.accept(providerId, day));
+        });
+        afterCommit(publish);
+    }
+
+    // Forgets every day of a provider from fromDay on; used when a recurring
+    // rule changes, which can affect an open-ended range of days. The days are
+    // recomputed lazily the next time they are read.
+    public void invalidateFrom(Long providerId, LocalDate fromDay) {
+        providerAvailabilityDayRepository.deleteByProviderIdFromDay(providerId, fromDay);
+
+        Runnable publish = () -> {
+            generation.incrementAndGet();
+            List<DayKey> removed = masks.removeIf(key -> key.providerId().equals(providerId) && !key.day().isBefore(fromDay));
+            for (DayKey key : removed) {
+                listeners.forEach(listener -> listener.accept(providerId, key.day()));
+            }
+        };
+        afterCommit(publish);
+    }
+
+    // Request-path alternative to refresh(): drops the packed rows of the days
+    // touched by [startTime, endTime) and, after commit, their in-memory masks.
+    // The days are recomputed on their next read and re-persisted by flushDirtyDays.
+    public void markDirty(Long providerId, LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDate firstDay = startTime.toLocalDate();
+        LocalDate lastDay = endTime.isAfter(startTime) ? endTime.minusNanos(1).toLocalDate() : firstDay;
+        providerAvailabilityDayRepository.deleteByProviderIdAndDayRange(providerId, firstDay, lastDay);
+
+        Runnable publish = () -> {
+            generation.incrementAndGet();
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                DayKey key = new DayKey(providerId, day);
+                dirtyDays.add(key);
+                masks.remove(key);
+                for (BiConsumer<Long, LocalDate> listener : listeners) {
+                    listener.accept(providerId, day);
+                }
+            }
+        };
+        afterCommit(publish);
+    }
+
+    // Recomputes and persists the days marked dirty since the last run; past
+    // days are dropped. Returns the number of days written.
+    @Scheduled(fixedDelayString = "${availability.calendar.flush-ms:5000}",
+               initialDelayString = "${availability.calendar.flush-ms:5000}")
+    public int flushDirtyDays() {
+        LocalDate today = LocalDate.now();
+        int flushed = 0;
+        for (DayKey key : new ArrayList<>(dirtyDays)) {
+            dirtyDays.remove(key);
+            if (!key.day().isBefore(today)) {
+                refresh(key.providerId(), key.day().atStartOfDay(), key.day().plusDays(1).atStartOfDay());
+                flushed++;
+            }
+        }
+        return flushed;
+    }
+
+    @Scheduled(fixedDelayString = "${availability.calendar.purge-ms:3600000}",
+               initialDelayString = "${availability.calendar.purge-ms:3600000}")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        masks.removeIf(key -> key.day().isBefore(today));
+    }
+
+    public int getCachedDays() {
+        return masks.size();
+    }
+
+    @PostConstruct
+    void init() {
+        masks.setMaxDays(cacheMaxDays);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Map<LocalDate, long[]> loadDays(Long providerId, LocalDate fromDay, LocalDate toDay) {
+        long loadedGeneration = generation.get();
+        Map<LocalDate, long[]> result = new HashMap<>();
+        boolean missing = false;
+        for (LocalDate day = fromDay; !day.isAfter(toDay); day = day.plusDays(1)) {
+            long[] mask = masks.get(new DayKey(providerId, day));
+            if (mask != null) {
+                result.put(day, mask);
+            } else {
+                missing = true;
+            }
+        }
+        if (!missing) {
+            return result;
+        }
+
+        // Packed rows first, then compute whatever has never been persisted
+        for (ProviderAvailabilityDay row : providerAvailabilityDayRepository
+                .findByProviderIdAndDayRange(providerId, fromDay, toDay)) {
+            if (!result.containsKey(row.getDay())) {
+                result.put(row.getDay(), cache(providerId, row.getDay(), unpack(row.getFreeMask()), loadedGeneration));
+            }
+        }
+        if (result.size() < fromDay.datesUntil(toDay.plusDays(1)).count()) {
+            computeDays(providerId, fromDay, toDay).forEach((day, mask) -> {
+                if (!result.containsKey(day)) {
+                    result.put(day, cache(providerId, day, mask, loadedGeneration));
+                }
+            });
+        }
+        return result;
+    }
+
+    private long[] cache(Long providerId, LocalDate day, long[] mask, long loadedGeneration) {
+        if (day.isBefore(LocalDate.now())) {
+            return mask;
+        }
+        DayKey key = new DayKey(providerId, day);
+        long[] existing = masks.putIfAbsent(key, mask);
+        if (existing != null) {
+            return existing;
+        }
+        if (generation.get() != loadedGeneration) {
+            masks.remove(key, mask);
+        }
+        return mask;
+    }
+
+    private Map<LocalDate, long[]> computeDays(Long providerId, LocalDate fromDay, LocalDate toDay) {
+        LocalDateTime rangeStart = fromDay.atStartOfDay();
+        LocalDateTime rangeEnd = toDay.plusDays(1).atStartOfDay();
+
+        Map<LocalDate, long[]> result = new HashMap<>();
+        for (LocalDate day = fromDay; !day.isAfter(toDay); day = day.plusDays(1)) {
+            result.put(day, new long[WORDS_PER_DAY]);
+        }
+
+        for (Object[] slot : availabilitySlotRepository.findAvailableSlotWindowsOverlapping(providerId, rangeStart, rangeEnd)) {
+            applyWindow(result, (LocalDateTime) slot[0], (LocalDateTime) slot[1], true);
+        }
+        for (AvailabilityWindow window : availabilityRuleExpander.expand(providerId, fromDay, toDay)) {
+            applyWindow(result, window.getStartTime(), window.getEndTime(), true);
+        }
+        for (Object[] booking : bookingRepository.findActiveBookingWindowsOverlapping(providerId, rangeStart, rangeEnd)) {
+            applyWindow(result, (LocalDateTime) booking[0], (LocalDateTime) booking[1], false);
+        }
+        return result;
+    }
+
+    // Available slots set the blocks they fully cover; bookings clear every block they touch
+    private void applyWindow(Map<LocalDate, long[]> dayMasks, LocalDateTime startTime, LocalDateTime endTime, boolean free) {
+        for (Map.Entry<LocalDate, long[]> entry : dayMasks.entrySet()) {
+            LocalDateTime dayStart = entry.getKey().atStartOfDay();
+            LocalDateTime dayEnd = dayStart.plusDays(1);
+            if (!startTime.isBefore(dayEnd) || !endTime.isAfter(dayStart)) {
+                continue;
+            }
+
+            LocalDateTime from = startTime.isAfter(dayStart) ? startTime : dayStart;
+            LocalDateTime to = endTime.isBefore(dayEnd) ? endTime : dayEnd;
+            if (free) {
+                setRange(entry.getValue(), ceilBlock(from, entry.getKey()), floorBlock(to, entry.getKey()), true);
+            } else {
+                setRange(entry.getValue(), floorBlock(from.toLocalTime()), ceilBlock(to, entry.getKey()), false);
+            }
+        }
+    }
+
+    private static int floorBlock(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / BLOCK_MINUTES;
+    }
+
+    static int floorBlock(LocalDateTime time, LocalDate day) {
+        return time.toLocalDate().isAfter(day) ? BLOCKS_PER_DAY : floorBlock(time.toLocalTime());
+    }
+
+    static int ceilBlock(LocalDateTime time, LocalDate day) {
+        if (time.toLocalDate().isAfter(day)) {
+            return BLOCKS_PER_DAY;
+        }
+        LocalTime localTime = time.toLocalTime();
+        int block = floorBlock(localTime);
+        boolean aligned = localTime.getMinute() % BLOCK_MINUTES == 0
+                && localTime.getSecond() == 0 && localTime.getNano() == 0;
+        return aligned ? block : block + 1;
+    }
+
+    static LocalDateTime blockTime(LocalDate day, int block) {
+        return day.atStartOfDay().plusMinutes((long) block * BLOCK_MINUTES);
+    }
+
+    // Word-level helpers over a day mask
+
+    private static long wordMask(int word, int from, int to) {
+        int lo = Math.max(from - word * 64, 0);
+        int hi = Math.min(to - word * 64, 64);
+        long upper = hi == 64 ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+
+    static boolean allSet(long[] mask, int from, int to) {
+        for (int word = from >>> 6; from < to && word <= (to - 1) >>> 6; word++) {
+            long bits = wordMask(word, from, to);
+            if ((mask[word] & bits) != bits) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void setRange(long[] mask, int from, int to, boolean value) {
+        for (int word = from >>> 6; from < to && word <= (to - 1) >>> 6; word++) {
+            long bits = wordMask(word, from, to);
+            mask[word] = value ? mask[word] | bits : mask[word] & ~bits;
+        }
+    }
+
+    static int nextSetBit(long[] mask, int from) {
+        for (int word = from >>> 6; word < mask.length; word++) {
+            long bits = mask[word] & (word == from >>> 6 ? -1L << (from & 63) : -1L);
+            if (bits != 0) {
+                int bit = word * 64 + Long.numberOfTrailingZeros(bits);
+                return bit < BLOCKS_PER_DAY ? bit : -1;
+            }
+        }
+        return -1;
+    }
+
+    static int nextClearBit(long[] mask, int from) {
+        for (int word = from >>> 6; word < mask.length; word++) {
+            long bits = ~mask[word] & (word == from >>> 6 ? -1L << (from & 63) : -1L);
+            if (bits != 0) {
+                return Math.min(word * 64 + Long.numberOfTrailingZeros(bits), BLOCKS_PER_DAY);
+            }
+        }
+        return BLOCKS_PER_DAY;
+    }
+
+    static byte[] pack(long[] mask) {
+        ByteBuffer buffer = ByteBuffer.allocate(WORDS_PER_DAY * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (long word : mask) {
+            buffer.putLong(word);
+        }
+        byte[] packed = new byte[MASK_BYTES];
+        System.arraycopy(buffer.array(), 0, packed, 0, MASK_BYTES);
+        return packed;
+    }
+
+    static long[] unpack(byte[] packed) {
+        byte[] padded = new byte[WORDS_PER_DAY * 8];
+        System.arraycopy(packed, 0, padded, 0, Math.min(packed.length, MASK_BYTES));
+        ByteBuffer buffer = ByteBuffer.wrap(padded).order(ByteOrder.LITTLE_ENDIAN);
+        long[] mask = new long[WORDS_PER_DAY];
+        for (int i = 0; i < WORDS_PER_DAY; i++) {
+            mask[i] = buffer.getLong();
+        }
+        return mask;
+    }
+
+    private record DayKey(Long providerId, LocalDate day) {
+    }
+
+    // Access-ordered LinkedHashMap behind one lock: lookups are a hash probe,
+    // and the least recently used day is dropped once maxDays is exceeded
+    private static final class DayMaskCache {
+
+        private int maxDays = 10000;
+
+        private final LinkedHashMap<DayKey, long[]> entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DayKey, long[]> eldest) {
+                return size() > maxDays;
+            }
+        };
+
+        synchronized void setMaxDays(int maxDays) {
+            this.maxDays = maxDays;
+        }
+
+        synchronized long[] get(DayKey key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(DayKey key, long[] mask) {
+            entries.put(key, mask);
+        }
+
+        synchronized long[] putIfAbsent(DayKey key, long[] mask) {
+            return entries.putIfAbsent(key, mask);
+        }
+
+        synchronized void remove(DayKey key) {
+            entries.remove(key);
+        }
+
+        synchronized void remove(DayKey key, long[] mask) {
+            entries.remove(key, mask);
+        }
+
+        // Returns the removed keys
+        synchronized List<DayKey> removeIf(Predicate<DayKey> filter) {
+            List<DayKey> removed = new ArrayList<>();
+            Iterator<DayKey> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                DayKey key = keys.next();
+                if (filter.test(key)) {
+                    keys.remove();
+                    removed.add(key);
+                }
+            }
+            return removed;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.dto.AvailabilityWindow;
+import org.example.apcproject3.entity.AvailabilityRule;
+import org.example.apcproject3.repository.AvailabilityRuleExceptionRepository;
+import org.example.apcproject3.repository.AvailabilityRuleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Expands recurring availability rules into concrete windows for a range of
+// days. Used by the availability calendar and the slot listings, so rule
+// occurrences never have to be stored as slot rows.
+@Component
+public class AvailabilityRuleExpander {
+
+    @Autowired
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Autowired
+    private AvailabilityRuleExceptionRepository availabilityRuleExceptionRepository;
+
+    // Occurrences of each provider's rules on the days [fromDay, toDay], ordered by start
+    public Map<Long, List<AvailabilityWindow>> expand(Collection<Long> providerIds, LocalDate fromDay, LocalDate toDay) {
+        List<AvailabilityRule> rules = availabilityRuleRepository.findActiveRulesForProviders(providerIds, fromDay, toDay);
+        if (rules.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> ruleIds = new ArrayList<>(rules.size());
+        for (AvailabilityRule rule : rules) {
+            ruleIds.add(rule.getId());
+        }
+        Map<Long, Set<LocalDate>> exceptions = new HashMap<>();
+        for (Object[] row : availabilityRuleExceptionRepository.findExceptionDates(ruleIds, fromDay, toDay)) {
+            exceptions.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((LocalDate) row[1]);
+        }
+
+        Map<Long, List<AvailabilityWindow>> result = new HashMap<>();
+        for (AvailabilityRule rule : rules) {
+            Set<LocalDate> skipped = exceptions.getOrDefault(rule.getId(), Set.of());
+            LocalDate first = rule.getValidFrom().isAfter(fromDay) ? rule.getValidFrom() : fromDay;
+            LocalDate last = rule.getValidUntil() != null && rule.getValidUntil().isBefore(toDay) ? rule.getValidUntil() : toDay;
+
+            List<AvailabilityWindow> windows = result.computeIfAbsent(rule.getProvider().getId(), id -> new ArrayList<>());
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                if (rule.getDaysOfWeek().contains(day.getDayOfWeek()) && !skipped.contains(day)) {
+                    windows.add(new AvailabilityWindow(day.atTime(rule.getStartTime()), occurrenceEnd(rule, day)));
+                }
+            }
+        }
+        result.values().forEach(windows -> windows.sort(Comparator.comparing(AvailabilityWindow::getStartTime)));
+        return result;
+    }
+
+    public List<AvailabilityWindow> expand(Long providerId, LocalDate fromDay, LocalDate toDay) {
+        return expand(List.of(providerId), fromDay, toDay).getOrDefault(providerId, List.of());
+    }
+
+    // True when rule occurrences cover the whole window without a gap. A window
+    // across midnight needs every day it spans, e.g. an occurrence ending at
+    // 00:00 followed by one starting at 00:00 the next day.
+    public boolean covers(Long providerId, LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime coveredUntil = startTime;
+        for (AvailabilityWindow window : expand(providerId, startTime.toLocalDate(), endTime.toLocalDate())) {
+            if (window.getStartTime().isAfter(coveredUntil)) {
+                // Sorted by start, so nothing later can close the gap
+                return false;
+            }
+            if (window.getEndTime().isAfter(coveredUntil)) {
+                coveredUntil = window.getEndTime();
+                if (!coveredUntil.isBefore(endTime)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // An end time of 00:00 means the end of the day
+    private static LocalDateTime occurrenceEnd(AvailabilityRule rule, LocalDate day) {
+        return rule.getEndTime().equals(LocalTime.MIDNIGHT)
+                ? day.plusDays(1).atStartOfDay()
+                : day.atTime(rule.getEndTime());
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.AvailabilityRule;
+import org.example.apcproject3.entity.AvailabilityRuleException;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.example.apcproject3.repository.AvailabilityRuleExceptionRepository;
+import org.example.apcproject3.repository.AvailabilityRuleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Transactional
+public class AvailabilityRuleService {
+
+    @Autowired
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Autowired
+    private AvailabilityRuleExceptionRepository availabilityRuleExceptionRepository;
+
+    @Autowired
+    private AvailabilityCalendarService availabilityCalendarService;
+
+    public AvailabilityRule createRule(AvailabilityRule rule) {
+        validateRule(rule);
+
+        AvailabilityRule savedRule = availabilityRuleRepository.save(rule);
+        availabilityCalendarService.invalidateFrom(savedRule.getProvider().getId(), savedRule.getValidFrom());
+        return savedRule;
+    }
+
+    public Optional<AvailabilityRule> findById(Long id) {
+        return availabilityRuleRepository.findById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AvailabilityRule> findByProvider(ServiceProvider provider) {
+        return availabilityRuleRepository.findByProvider(provider);
+    }
+
+    // Editing a schedule is a single row update; the calendar forgets the
+    // affected days and recomputes them on demand
+    public AvailabilityRule updateRule(Long ruleId, AvailabilityRule changes) {
+        AvailabilityRule rule = availabilityRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new RuntimeException("Availability rule not found"));
+        validateRule(changes);
+
+        LocalDate affectedFrom = rule.getValidFrom().isBefore(changes.getValidFrom())
+                ? rule.getValidFrom()
+                : changes.getValidFrom();
+
+        rule.getDaysOfWeek().clear();
+        rule.getDaysOfWeek().addAll(changes.getDaysOfWeek());
+        rule.setStartTime(changes.getStartTime());
+        rule.setEndTime(changes.getEndTime());
+        rule.setValidFrom(changes.getValidFrom());
+        rule.setValidUntil(changes.getValidUntil());
+
+        AvailabilityRule savedRule = availabilityRuleRepository.save(rule);
+        availabilityCalendarService.invalidateFrom(savedRule.getProvider().getId(), affectedFrom);
+        return savedRule;
+    }
+
+    public void deleteRule(Long ruleId) {
+        AvailabilityRule rule = availabilityRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new RuntimeException("Availability rule not found"));
+
+        availabilityRuleExceptionRepository.deleteByRuleId(ruleId);
+        availabilityRuleRepository.delete(rule);
+        availabilityCalendarService.invalidateFrom(rule.getProvider().getId(), rule.getValidFrom());
+    }
+
+    // Skips one occurrence of a rule (holiday, day off)
+    public AvailabilityRuleException addException(Long ruleId, LocalDate date) {
+        AvailabilityRule rule = availabilityRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new RuntimeException("Availability rule not found"));
+
+        if (availabilityRuleExceptionRepository.existsByRuleIdAndExceptionDate(ruleId, date)) {
+            throw new RuntimeException("Exception already exists for this date");
+        }
+
+        AvailabilityRuleException savedException = availabilityRuleExceptionRepository.save(new AvailabilityRuleException(rule, date));
+        availabilityCalendarService.refresh(rule.getProvider().getId(), date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        return savedException;
+    }
+
+    private void validateRule(AvailabilityRule rule) {
+        if (rule.getDaysOfWeek() == null || rule.getDaysOfWeek().isEmpty()) {
+            throw new RuntimeException("At least one day of the week is required");
+        }
+
+        // 00:00 as end time means "until midnight"
+        if (!rule.getEndTime().equals(LocalTime.MIDNIGHT) && !rule.getEndTime().isAfter(rule.getStartTime())) {
+            throw new RuntimeException("End time must be after start time");
+        }
+
+        if (rule.getValidUntil() != null && rule.getValidUntil().isBefore(rule.getValidFrom())) {
+            throw new RuntimeException("Valid until date must not be before valid from date");
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.dto.ProviderAvailabilityMatch;
+import org.example.apcproject3.repository.ServiceProviderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.example.apcproject3.service.AvailabilityCalendarService.BLOCKS_PER_DAY;
+import static org.example.apcproject3.service.AvailabilityCalendarService.BLOCK_MINUTES;
+
+// Multi-provider availability search. Free capacity is bucketed by category and
+// day: each bucket holds the search candidates of one category together with
+// their day masks from the availability calendar, so a search over a window is
+// a scan over a handful of in-memory buckets instead of one query per provider.
+@Service
+@Transactional(readOnly = true)
+public class AvailabilitySearchService {
+
+    private static final Duration BUCKET_TTL = Duration.ofMinutes(5);
+
+    private static final Comparator<ProviderAvailabilityMatch> RANKING = Comparator
+            .comparing(ProviderAvailabilityMatch::getRating, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ProviderAvailabilityMatch::getEarliestStart)
+            .thenComparing(ProviderAvailabilityMatch::getHourlyRate, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private AvailabilityCalendarService availabilityCalendarService;
+
+    private final ConcurrentMap<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerCalendarListener() {
+        // A changed provider-day only invalidates the buckets of that day
+        availabilityCalendarService.addChangeListener((providerId, day) -> invalidateDay(day));
+    }
+
+    // Providers of a category with a free run of at least durationMinutes inside
+    // [startTime, endTime), ranked by rating, earliest start and hourly rate
+    public List<ProviderAvailabilityMatch> search(Long categoryId, LocalDateTime startTime, LocalDateTime endTime,
+                                                  int durationMinutes, int limit) {
+        if (!endTime.isAfter(startTime)) {
+            throw new RuntimeException("End time must be after start time");
+        }
+        if (durationMinutes <= 0) {
+            throw new RuntimeException("Duration must be positive");
+        }
+
+        int needed = (durationMinutes + BLOCK_MINUTES - 1) / BLOCK_MINUTES;
+        LocalDate firstDay = startTime.toLocalDate();
+        LocalDate lastDay = endTime.minusNanos(1).toLocalDate();
+
+        Map<Long, ProviderAvailabilityMatch> matches = new HashMap<>();
+        // Free runs reaching midnight continue on the next day
+        Map<Long, Run> openRuns = new HashMap<>();
+
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            int from = day.equals(firstDay) ? AvailabilityCalendarService.ceilBlock(startTime, day) : 0;
+            int to = day.equals(lastDay) ? AvailabilityCalendarService.floorBlock(endTime, day) : BLOCKS_PER_DAY;
+            Map<Long, Run> nextRuns = new HashMap<>();
+
+            for (Candidate candidate : getBucket(categoryId, day).candidates) {
+                if (matches.containsKey(candidate.providerId)) {
+                    continue;
+                }
+
+                long[] mask = candidate.mask;
+                Run open = from == 0 ? openRuns.get(candidate.providerId) : null;
+                int position = from;
+                while (position < to) {
+                    int runStart = AvailabilityCalendarService.nextSetBit(mask, position);
+                    if (runStart < 0 || runStart >= to) {
+                        break;
+                    }
+                    int runEnd = Math.min(AvailabilityCalendarService.nextClearBit(mask, runStart), to);
+
+                    Run run = open != null && runStart == 0
+                            ? new Run(open.start, open.blocks + runEnd)
+                            : new Run(AvailabilityCalendarService.blockTime(day, runStart), runEnd - runStart);
+                    open = null;
+
+                    if (run.blocks >= needed) {
+                        matches.put(candidate.providerId, candidate.toMatch(run.start));
+                        break;
+                    }
+                    if (runEnd == BLOCKS_PER_DAY) {
+                        nextRuns.put(candidate.providerId, run);
+                    }
+                    position = runEnd;
+                }
+            }
+            openRuns = nextRuns;
+        }
+
+        List<ProviderAvailabilityMatch> result = new ArrayList<>(matches.values());
+        result.sort(RANKING);
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    // Provider profile changes (category, availability, rating) can move a
+    // provider between buckets, so every bucket is rebuilt
+    public void invalidateAll() {
+        buckets.clear();
+    }
+
+    public void invalidateDay(LocalDate day) {
+        buckets.keySet().removeIf(key -> key.day().equals(day));
+    }
+
+    private Bucket getBucket(Long categoryId, LocalDate day) {
+        BucketKey key = new BucketKey(categoryId, day);
+        Bucket bucket = buckets.get(key);
+        if (bucket != null && !bucket.isExpired()) {
+            return bucket;
+        }
+
+        List<Object[]> rows = serviceProviderRepository.findSearchCandidatesByCategory(categoryId);
+        List<Long> providerIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            providerIds.add((Long) row[0]);
+        }
+        Map<Long, long[]> dayMasks = providerIds.isEmpty()
+                ? Map.of()
+                : availabilityCalendarService.findDayMasks(providerIds, day);
+
+        List<Candidate> candidates = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            long[] mask = dayMasks.get((Long) row[0]);
+            if (mask != null && AvailabilityCalendarService.nextSetBit(mask, 0) >= 0) {
+                candidates.add(new Candidate((Long) row[0], row[1] + " " + row[2], (BigDecimal) row[3],
+                        (BigDecimal) row[4], Boolean.TRUE.equals(row[5]), mask));
+            }
+        }
+
+        Bucket built = new Bucket(candidates, LocalDateTime.now().plus(BUCKET_TTL));
+        buckets.put(key, built);
+        return built;
+    }
+
+    record BucketKey(Long categoryId, LocalDate day) {
+    }
+
+    private record Run(LocalDateTime start, int blocks) {
+    }
+
+    private record Candidate(Long providerId, String name, BigDecimal rating, BigDecimal hourlyRate,
+                             boolean verified, long[] mask) {
+
+        ProviderAvailabilityMatch toMatch(LocalDateTime earliestStart) {
+            return new ProviderAvailabilityMatch(providerId, name, rating, hourlyRate, verified, earliestStart);
+        }
+    }
+
+    // Only providers with at least one free block that day are kept
+    private static class Bucket {
+
+        private final List<Candidate> candidates;
+        private final LocalDateTime expiresAt;
+
+        Bucket(List<Candidate> candidates, LocalDateTime expiresAt) {
+            this.candidates = candidates;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return LocalDateTime.now().isAfter(expiresAt);
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package org.example.apcproject3.service;
 
+import org.example.apcproject3.dto.AvailabilityWindow;
 import org.example.apcproject3.entity.AvailabilitySlot;
 import org.example.apcproject3.entity.ServiceProvider;
 import org.example.apcproject3.repository.AvailabilitySlotRepository;
+import org.example.apcproject3.repository.ServiceProviderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -18,6 +25,18 @@ public class AvailabilitySlotService {
     @Autowired
     private AvailabilitySlotRepository availabilitySlotRepository;
 
+    @Autowired
+    private AvailabilityCalendarService availabilityCalendarService;
+
+    @Autowired
+    private AvailabilityRuleExpander availabilityRuleExpander;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    // How far ahead open-ended listings expand recurring rules
+    private static final int RULE_LISTING_DAYS = 28;
+
     public AvailabilitySlot createSlot(AvailabilitySlot slot) {
         // Validate that end time is after start time
         if (slot.getEndTime().isBefore(slot.getStartTime())) {
@@ -36,7 +55,9 @@ public class AvailabilitySlotService {
             throw new RuntimeException("Time slot overlaps with existing availability");
         }
 
-        return availabilitySlotRepository.save(slot);
+        AvailabilitySlot savedSlot = availabilitySlotRepository.save(slot);
+        refreshCalendar(savedSlot);
+        return savedSlot;
     }
 
     public Optional<AvailabilitySlot> findById(Long id) {
@@ -55,7 +76,20 @@ public class AvailabilitySlotService {
 
     @Transactional(readOnly = true)
     public List<AvailabilitySlot> findAvailableSlotsByProviderAndDate(Long providerId, LocalDateTime date) {
-        return availabilitySlotRepository.findAvailableSlotsByProviderIdAndDate(providerId, date);
+        List<AvailabilitySlot> slots = availabilitySlotRepository.findAvailableSlotsByProviderIdAndDate(providerId, date);
+        return withRuleOccurrences(providerId, slots, date, date.plusDays(RULE_LISTING_DAYS));
+    }
+
+    // Available slots starting on the given day; days the calendar knows to be
+    // fully occupied are answered without touching the slot table
+    @Transactional(readOnly = true)
+    public List<AvailabilitySlot> findAvailableSlotsByProviderOnDay(Long providerId, LocalDate day) {
+        if (!availabilityCalendarService.hasFreeTime(providerId, day)) {
+            return List.of();
+        }
+        List<AvailabilitySlot> slots = availabilitySlotRepository.findAvailableSlotsByProviderIdBetween(
+            providerId, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        return withRuleOccurrences(providerId, slots, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
     }
 
     @Transactional(readOnly = true)
@@ -68,7 +102,9 @@ public class AvailabilitySlotService {
                 .orElseThrow(() -> new RuntimeException("Availability slot not found"));
 
         slot.setAvailable(false);
-        return availabilitySlotRepository.save(slot);
+        AvailabilitySlot savedSlot = availabilitySlotRepository.save(slot);
+        refreshCalendar(savedSlot);
+        return savedSlot;
     }
 
     public AvailabilitySlot markSlotAsAvailable(Long slotId) {
@@ -76,14 +112,43 @@ public class AvailabilitySlotService {
                 .orElseThrow(() -> new RuntimeException("Availability slot not found"));
 
         slot.setAvailable(true);
-        return availabilitySlotRepository.save(slot);
+        AvailabilitySlot savedSlot = availabilitySlotRepository.save(slot);
+        refreshCalendar(savedSlot);
+        return savedSlot;
+    }
+
+    // Sets availability of the provider's slot covering exactly this window.
+    // Returns the number of slots changed (0 when none matches or it is already in that state).
+    public int markSlotAvailabilityForWindow(Long providerId, LocalDateTime startTime, LocalDateTime endTime, boolean available) {
+        int updated = availabilitySlotRepository.updateAvailabilityForWindow(providerId, startTime, endTime, available);
+
+        // A window claimed inside a recurring rule occurrence has no slot row
+        // yet; materialize it so the claim is recorded
+        if (updated == 0 && !available
+                && availabilitySlotRepository.findSlotWindowsOverlapping(providerId, startTime, endTime).isEmpty()
+                && availabilityRuleExpander.covers(providerId, startTime, endTime)) {
+            AvailabilitySlot claimedSlot = new AvailabilitySlot(
+                serviceProviderRepository.getReferenceById(providerId), startTime, endTime);
+            claimedSlot.setAvailable(false);
+            availabilitySlotRepository.save(claimedSlot);
+            updated = 1;
+        }
+
+        // Bookings shape the calendar too, so mark the days dirty even when no
+        // slot matched; they are recomputed off the booking path
+        availabilityCalendarService.markDirty(providerId, startTime, endTime);
+        return updated;
     }
 
     public void deleteSlot(Long id) {
+        Optional<AvailabilitySlot> slot = availabilitySlotRepository.findById(id);
         availabilitySlotRepository.deleteById(id);
+        slot.ifPresent(this::refreshCalendar);
     }
 
-    // Batch create slots for a provider
+    // Batch create slots. Each provider's slots are sorted once and swept for
+    // overlaps with each other and with the provider's existing slots before
+    // anything is written; the inserts are then sent in JDBC batches.
     public List<AvailabilitySlot> createMultipleSlots(List<AvailabilitySlot> slots) {
         // Validate all slots before saving
         for (AvailabilitySlot slot : slots) {
@@ -92,6 +157,90 @@ public class AvailabilitySlotService {
             }
         }
 
-        return availabilitySlotRepository.saveAll(slots);
+        Map<Long, List<AvailabilitySlot>> slotsByProvider = slots.stream()
+            .collect(Collectors.groupingBy(slot -> slot.getProvider().getId()));
+        slotsByProvider.forEach(this::checkBatchOverlaps);
+
+        List<AvailabilitySlot> savedSlots = availabilitySlotRepository.saveAll(slots);
+
+        // One calendar refresh per provider covering the whole batch
+        slotsByProvider.forEach((providerId, providerSlots) -> availabilityCalendarService.refresh(
+            providerId,
+            providerSlots.get(0).getStartTime(),
+            providerSlots.stream().map(AvailabilitySlot::getEndTime).max(LocalDateTime::compareTo).get()));
+
+        return savedSlots;
+    }
+
+    // Sorts the provider's batch by start time and walks it alongside the
+    // existing slots (also ordered by start) in a single pass
+    private void checkBatchOverlaps(Long providerId, List<AvailabilitySlot> providerSlots) {
+        providerSlots.sort(Comparator.comparing(AvailabilitySlot::getStartTime));
+
+        LocalDateTime batchEnd = providerSlots.get(0).getEndTime();
+        for (int i = 1; i < providerSlots.size(); i++) {
+            AvailabilitySlot slot = providerSlots.get(i);
+            if (slot.getStartTime().isBefore(batchEnd)) {
+                throw new RuntimeException("Slots in the batch overlap at " + slot.getStartTime());
+            }
+            batchEnd = slot.getEndTime();
+        }
+
+        List<Object[]> existing = availabilitySlotRepository.findSlotWindowsOverlapping(
+            providerId, providerSlots.get(0).getStartTime(), batchEnd);
+        int next = 0;
+        for (AvailabilitySlot slot : providerSlots) {
+            // Existing slots ending before this one starts cannot overlap any later slot either
+            while (next < existing.size() && !((LocalDateTime) existing.get(next)[1]).isAfter(slot.getStartTime())) {
+                next++;
+            }
+            if (next < existing.size() && ((LocalDateTime) existing.get(next)[0]).isBefore(slot.getEndTime())) {
+                throw new RuntimeException("Time slot starting at " + slot.getStartTime() + " overlaps with existing availability");
+            }
+        }
+    }
+
+    // Adds the rule occurrences starting in [from, to) to a slot listing. Parts
+    // of an occurrence already covered by a slot row (available or claimed) are
+    // cut out; the remaining pieces are returned as unsaved slots (null id).
+    private List<AvailabilitySlot> withRuleOccurrences(Long providerId, List<AvailabilitySlot> slots,
+                                                       LocalDateTime from, LocalDateTime to) {
+        List<AvailabilityWindow> occurrences = availabilityRuleExpander.expand(
+            providerId, from.toLocalDate(), to.minusNanos(1).toLocalDate());
+        if (occurrences.isEmpty()) {
+            return slots;
+        }
+
+        List<Object[]> taken = availabilitySlotRepository.findSlotWindowsOverlapping(providerId, from, to.plusDays(1));
+        List<AvailabilitySlot> result = new ArrayList<>(slots);
+        for (AvailabilityWindow occurrence : occurrences) {
+            if (occurrence.getStartTime().isBefore(from) || !occurrence.getStartTime().isBefore(to)) {
+                continue;
+            }
+
+            LocalDateTime cursor = occurrence.getStartTime();
+            for (Object[] window : taken) {
+                LocalDateTime takenStart = (LocalDateTime) window[0];
+                LocalDateTime takenEnd = (LocalDateTime) window[1];
+                if (!takenStart.isBefore(occurrence.getEndTime())) {
+                    break;
+                }
+                if (takenEnd.isAfter(cursor)) {
+                    if (takenStart.isAfter(cursor)) {
+                        result.add(new AvailabilitySlot(null, cursor, takenStart));
+                    }
+                    cursor = takenEnd;
+                }
+            }
+            if (cursor.isBefore(occurrence.getEndTime())) {
+                result.add(new AvailabilitySlot(null, cursor, occurrence.getEndTime()));
+            }
+        }
+        result.sort(Comparator.comparing(AvailabilitySlot::getStartTime));
+        return result;
+    }
+
+    private void refreshCalendar(AvailabilitySlot slot) {
+        availabilityCalendarService.refresh(slot.getProvider().getId(), slot.getStartTime(), slot.getEndTime());
     }
 }
@@ -0,0 +1,16 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.BookingOutboxEvent;
+
+import java.util.List;
+
+// A secondary store fed from the booking outbox (analytics, reporting, ...).
+// Delivery is at least once: a batch that failed in any sink is retried for
+// every sink, so implementations must tolerate seeing an event id again.
+public interface BookingEventSink {
+
+    String getName();
+
+    // Throwing marks the whole batch for retry
+    void deliver(List<BookingOutboxEvent> events);
+}
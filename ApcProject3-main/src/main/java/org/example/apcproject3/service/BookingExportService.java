@@ -0,0 +1,125 @@
+package org.example.apcproject3.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.apcproject3.dto.BookingExportFormat;
+import org.example.apcproject3.dto.BookingSummary;
+import org.example.apcproject3.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes all bookings to an output stream as they are read from the database.
+// Rows come through a forward-only cursor as detached summaries, so memory use
+// stays flat no matter how many bookings there are.
+@Service
+public class BookingExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private static final String CSV_HEADER = "id,status,startTime,endTime,totalAmount,description,address,createdAt,"
+            + "customerId,customerFirstName,customerLastName,providerId,providerFirstName,providerLastName,categoryName";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Returns the number of bookings written
+    @Transactional(readOnly = true)
+    public long exportBookings(OutputStream out, BookingExportFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<BookingSummary> rows = bookingRepository.streamAllSummaries()) {
+            long written = format == BookingExportFormat.CSV
+                    ? writeCsv(rows.iterator(), writer)
+                    : writeJson(rows.iterator(), writer, format == BookingExportFormat.NDJSON);
+            writer.flush();
+            return written;
+        }
+    }
+
+    private long writeJson(Iterator<BookingSummary> rows, Writer writer, boolean lineDelimited) throws IOException {
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        long written = 0;
+        if (!lineDelimited) {
+            generator.writeStartArray();
+        }
+        while (rows.hasNext()) {
+            rowWriter.writeValue(generator, rows.next());
+            if (lineDelimited) {
+                generator.writeRaw('\n');
+            }
+            if (++written % FLUSH_EVERY_ROWS == 0) {
+                generator.flush();
+            }
+        }
+        if (!lineDelimited) {
+            generator.writeEndArray();
+        }
+        generator.flush();
+        return written;
+    }
+
+    private long writeCsv(Iterator<BookingSummary> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long written = 0;
+        while (rows.hasNext()) {
+            BookingSummary row = rows.next();
+            writeCsvRow(writer, row.getId(), row.getStatus(), row.getStartTime(), row.getEndTime(),
+                    row.getTotalAmount(), row.getDescription(), row.getAddress(), row.getCreatedAt(),
+                    row.getCustomerId(), row.getCustomerFirstName(), row.getCustomerLastName(),
+                    row.getProviderId(), row.getProviderFirstName(), row.getProviderLastName(), row.getCategoryName());
+            if (++written % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        return written;
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeCsvField(writer, values[i].toString());
+            }
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting: fields with separators, quotes or line breaks are
+    // wrapped in quotes and embedded quotes are doubled
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
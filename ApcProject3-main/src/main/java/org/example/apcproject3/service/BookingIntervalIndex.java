@@ -0,0 +1,313 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.Booking;
+import org.example.apcproject3.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-memory index of the non-cancelled booking intervals of each provider.
+// A provider's intervals are loaded on first use (and rebuilt after evict); afterwards createBooking
+// answers "does this window overlap anything?" with an O(log n) seek and a
+// short backward scan.
+@Component
+public class BookingIntervalIndex {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final ConcurrentMap<Long, ProviderIntervals> providers = new ConcurrentHashMap<>();
+
+    private final AtomicLong reservationIds = new AtomicLong();
+
+    public boolean hasConflict(Long providerId, LocalDateTime startTime, LocalDateTime endTime) {
+        ProviderIntervals intervals = providers.computeIfAbsent(providerId, id -> new ProviderIntervals());
+        intervals.lock.lock();
+        try {
+            ensureLoaded(providerId, intervals);
+
+            // Only bookings ending after the load time are indexed, so windows that
+            // start earlier than that are checked against the database instead
+            if (startTime.isBefore(intervals.loadedAt)) {
+                return bookingRepository.countOverlappingBookings(providerId, startTime, endTime) > 0;
+            }
+
+            return intervals.overlaps(startTime, endTime);
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+
+    // Atomically checks the window and holds it for the calling transaction, so
+    // two concurrent requests for the same provider cannot both pass the check.
+    // Only the provider's own intervals are locked; the hold is released when the
+    // transaction rolls back and becomes a regular interval once it commits.
+    public Optional<Reservation> reserve(Long providerId, LocalDateTime startTime, LocalDateTime endTime) {
+        ProviderIntervals intervals = providers.computeIfAbsent(providerId, id -> new ProviderIntervals());
+        Interval hold = new Interval(startTime, endTime, -reservationIds.incrementAndGet());
+
+        intervals.lock.lock();
+        try {
+            ensureLoaded(providerId, intervals);
+
+            if (startTime.isBefore(intervals.loadedAt)
+                    && bookingRepository.countOverlappingBookings(providerId, startTime, endTime) > 0) {
+                return Optional.empty();
+            }
+            if (!intervals.tryAdd(hold)) {
+                return Optional.empty();
+            }
+        } finally {
+            intervals.lock.unlock();
+        }
+
+        Reservation reservation = new Reservation(intervals, hold);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        reservation.commit();
+                    } else {
+                        reservation.release();
+                    }
+                }
+            });
+        }
+        return Optional.of(reservation);
+    }
+
+    // Index updates are applied once the surrounding transaction commits so a
+    // rolled back change never shows up in the index
+    public void remove(Booking booking) {
+        afterCommit(() -> {
+            ProviderIntervals intervals = providers.get(booking.getProvider().getId());
+            if (intervals != null) {
+                intervals.remove(new Interval(booking.getStartTime(), booking.getEndTime(), booking.getId()));
+            }
+        });
+    }
+
+    // Marks a provider's intervals for a rebuild from the database on the next
+    // check. The same ProviderIntervals is rebuilt in place, so reservations made
+    // on it keep landing in the live index.
+    public void evict(Long providerId) {
+        afterCommit(() -> {
+            ProviderIntervals intervals = providers.get(providerId);
+            if (intervals != null) {
+                intervals.markStale();
+            }
+        });
+    }
+
+    // Called with the provider's lock held. Commits and releases take the same
+    // lock, so every booking whose hold was converted is already committed and
+    // visible to the query, and holds still in flight are carried across.
+    private void ensureLoaded(Long providerId, ProviderIntervals intervals) {
+        if (!intervals.stale) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = bookingRepository.findActiveBookingIntervalsByProviderId(providerId, now);
+        List<Interval> persisted = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            persisted.add(new Interval((LocalDateTime) row[1], (LocalDateTime) row[2], (Long) row[0]));
+        }
+        intervals.rebuild(now, persisted);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    record Interval(LocalDateTime start, LocalDateTime end, Long bookingId) {
+    }
+
+    // A window held by an in-flight booking. Holds use negative ids so they
+    // never collide with the interval of a persisted booking.
+    public static class Reservation {
+
+        private final ProviderIntervals intervals;
+        private final Interval hold;
+        private volatile Booking booking;
+        private boolean completed;
+
+        Reservation(ProviderIntervals intervals, Interval hold) {
+            this.intervals = intervals;
+            this.hold = hold;
+        }
+
+        // Attaches the saved booking. Outside a transaction the hold is converted
+        // right away, and callers that fail before binding must release it.
+        public void bind(Booking savedBooking) {
+            this.booking = savedBooking;
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                commit();
+            }
+        }
+
+        public synchronized void release() {
+            if (!completed) {
+                completed = true;
+                intervals.remove(hold);
+            }
+        }
+
+        synchronized void commit() {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            if (booking == null) {
+                intervals.remove(hold);
+            } else {
+                intervals.replace(hold, new Interval(hold.start(), hold.end(), booking.getId()));
+            }
+        }
+    }
+
+    // Intervals of one provider ordered by start time. Existing bookings may
+    // overlap each other (rows from before overlap checks were strict), so a
+    // conflict is searched backwards from the requested end, stopping once a
+    // start is too early for even the longest indexed interval to reach the
+    // requested start. A ReentrantLock rather than a monitor guards the tree
+    // because a (re)load holds it across the database query, which must not pin
+    // a virtual thread.
+    static class ProviderIntervals {
+
+        private static final Comparator<Interval> ORDER = Comparator
+                .comparing(Interval::start)
+                .thenComparing(Interval::bookingId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TreeSet<Interval> intervals = new TreeSet<>(ORDER);
+
+        // Guarded by lock
+        private LocalDateTime loadedAt;
+        private boolean stale = true;
+
+        // Only grows until the next rebuild; removals leave it as a safe over-estimate
+        private Duration longest = Duration.ZERO;
+
+        boolean overlaps(LocalDateTime startTime, LocalDateTime endTime) {
+            lock.lock();
+            try {
+                LocalDateTime earliestStart = startTime.minus(longest);
+                for (Interval candidate : intervals.headSet(new Interval(endTime, null, null), false).descendingSet()) {
+                    if (!candidate.start().isAfter(earliestStart)) {
+                        return false;
+                    }
+                    if (candidate.end().isAfter(startTime)) {
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean tryAdd(Interval interval) {
+            lock.lock();
+            try {
+                if (overlaps(interval.start(), interval.end())) {
+                    return false;
+                }
+                add(interval);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void add(Interval interval) {
+            lock.lock();
+            try {
+                intervals.add(interval);
+                Duration length = Duration.between(interval.start(), interval.end());
+                if (length.compareTo(longest) > 0) {
+                    longest = length;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void replace(Interval previous, Interval next) {
+            lock.lock();
+            try {
+                intervals.remove(previous);
+                add(next);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(Interval interval) {
+            lock.lock();
+            try {
+                intervals.remove(interval);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void markStale() {
+            lock.lock();
+            try {
+                stale = true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Replaces the persisted intervals, keeping the holds (negative ids) of
+        // reservations that have not completed yet
+        void rebuild(LocalDateTime loadedAt, List<Interval> persisted) {
+            lock.lock();
+            try {
+                List<Interval> holds = new ArrayList<>();
+                for (Interval interval : intervals) {
+                    if (interval.bookingId() != null && interval.bookingId() < 0) {
+                        holds.add(interval);
+                    }
+                }
+                intervals.clear();
+                longest = Duration.ZERO;
+                for (Interval interval : persisted) {
+                    add(interval);
+                }
+                for (Interval hold : holds) {
+                    add(hold);
+                }
+                this.loadedAt = loadedAt;
+                this.stale = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
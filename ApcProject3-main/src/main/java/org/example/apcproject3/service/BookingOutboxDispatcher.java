@@ -0,0 +1,205 @@
+package org.example.apcproject3.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.apcproject3.entity.BookingOutboxEvent;
+import org.example.apcproject3.entity.OutboxEventStatus;
+import org.example.apcproject3.repository.BookingOutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Delivers pending outbox events to every BookingEventSink in batches on its
+// own thread. A failed batch is retried with exponential backoff; after
+// outbox.max-attempts its events are parked as FAILED. The thread wakes when a
+// commit recorded events (requestDispatch only signals it, so nothing runs on
+// the committing thread) and every outbox.poll-ms as a backstop. Without any
+// sink the dispatcher stays idle and events are left PENDING for a later deploy.
+@Component
+public class BookingOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private BookingOutboxEventRepository bookingOutboxEventRepository;
+
+    @Autowired(required = false)
+    private List<BookingEventSink> sinks = Collections.emptyList();
+
+    @Value("${outbox.poll-ms:5000}")
+    private long pollMs = 5000;
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${outbox.retry-base-ms:1000}")
+    private long retryBaseMs = 1000;
+
+    @Value("${outbox.retry-max-ms:300000}")
+    private long retryMaxMs = 300000;
+
+    @Value("${outbox.retention-hours:24}")
+    private long retentionHours = 24;
+
+    // One pass at a time; a request arriving mid-pass is covered by its next batch or the poll
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+    private final Semaphore wakeup = new Semaphore(0);
+
+    private Thread dispatcherThread;
+    private volatile boolean stopped;
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        if (sinks.isEmpty()) {
+            System.out.println("No BookingEventSink registered; booking outbox events stay pending");
+            return;
+        }
+        stopped = false;
+        dispatcherThread = new Thread(this::runDispatcher, "booking-outbox-dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        if (dispatcherThread == null) {
+            return;
+        }
+        wakeup.release();
+        try {
+            dispatcherThread.join(pollMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Safe to call from afterCommit: only signals the dispatcher thread
+    public void requestDispatch() {
+        if (dispatchRequested.compareAndSet(false, true)) {
+            wakeup.release();
+        }
+    }
+
+    public void dispatchPending() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (dispatchBatch() == batchSize) {
+                // Keep draining full batches
+            }
+        } catch (Exception e) {
+            System.err.println("Booking outbox dispatch failed: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-ms:3600000}", initialDelayString = "${outbox.purge-ms:3600000}")
+    public void purgeDispatched() {
+        int purged = bookingOutboxEventRepository.deleteDispatchedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (purged > 0) {
+            System.out.println("Purged " + purged + " dispatched booking outbox event(s)");
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sinks", sinks.size());
+        stats.put("pending", bookingOutboxEventRepository.countByStatus(OutboxEventStatus.PENDING));
+        stats.put("failed", bookingOutboxEventRepository.countByStatus(OutboxEventStatus.FAILED));
+        stats.put("dispatched", dispatched.sum());
+        stats.put("failedBatches", failedBatches.sum());
+        return stats;
+    }
+
+    private void runDispatcher() {
+        while (!stopped) {
+            try {
+                wakeup.tryAcquire(pollMs, TimeUnit.MILLISECONDS);
+                wakeup.drainPermits();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (stopped) {
+                return;
+            }
+            dispatchRequested.set(false);
+            dispatchPending();
+        }
+    }
+
+    // Delivers one batch; returns the number of events delivered
+    int dispatchBatch() {
+        // Nothing would receive the events; marking them dispatched would lose them
+        if (sinks.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingOutboxEvent> events = bookingOutboxEventRepository.findDue(now, PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            for (BookingEventSink sink : sinks) {
+                sink.deliver(events);
+            }
+        } catch (Exception e) {
+            failedBatches.increment();
+            scheduleRetry(events, e, now);
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(events.size());
+        for (BookingOutboxEvent event : events) {
+            ids.add(event.getId());
+        }
+        bookingOutboxEventRepository.markDispatched(ids, LocalDateTime.now());
+        dispatched.add(events.size());
+        return events.size();
+    }
+
+    private void scheduleRetry(List<BookingOutboxEvent> events, Exception error, LocalDateTime now) {
+        String message = String.valueOf(error.getMessage());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        for (BookingOutboxEvent event : events) {
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(message);
+            if (attempts >= maxAttempts) {
+                event.setStatus(OutboxEventStatus.FAILED);
+            } else {
+                long delayMs = Math.min(retryMaxMs, retryBaseMs << Math.min(attempts - 1, 30));
+                event.setNextAttemptAt(now.plusNanos(delayMs * 1_000_000));
+            }
+        }
+        bookingOutboxEventRepository.saveAll(events);
+        System.err.println("Booking outbox delivery of " + events.size() + " event(s) failed: " + message);
+    }
+}
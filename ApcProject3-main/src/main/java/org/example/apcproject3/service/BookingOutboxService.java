@@ -0,0 +1,52 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.Booking;
+import org.example.apcproject3.entity.BookingOutboxEvent;
+import org.example.apcproject3.entity.ServiceActionLog;
+import org.example.apcproject3.repository.BookingOutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Records booking state changes for the secondary stores. The event row joins
+// the caller's transaction, so the booking write only pays for one insert no
+// matter how many sinks there are; delivery happens in BookingOutboxDispatcher.
+// The audit trail entry is handed to ServiceLogWriter once the change commits.
+@Service
+@Transactional
+public class BookingOutboxService {
+
+    @Autowired
+    private BookingOutboxEventRepository bookingOutboxEventRepository;
+
+    @Autowired
+    private BookingOutboxDispatcher bookingOutboxDispatcher;
+
+    @Autowired
+    private ServiceLogWriter serviceLogWriter;
+
+    public void record(Booking booking, String eventType) {
+        BookingOutboxEvent event = bookingOutboxEventRepository.save(new BookingOutboxEvent(booking, eventType));
+        ServiceActionLog auditEntry = new ServiceActionLog(event.getBookingId(), event.getProviderId(),
+                event.getCustomerId(), eventType, "Booking " + event.getBookingId() + " is now " + event.getBookingStatus());
+
+        // Deliver soon after commit instead of waiting for the next poll
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(auditEntry);
+                }
+            });
+        } else {
+            committed(auditEntry);
+        }
+    }
+
+    private void committed(ServiceActionLog auditEntry) {
+        serviceLogWriter.log(auditEntry);
+        bookingOutboxDispatcher.requestDispatch();
+    }
+}
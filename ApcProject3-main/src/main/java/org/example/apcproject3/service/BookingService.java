@@ -1,17 +1,22 @@
 package org.example.apcproject3.service;
 
+import org.example.apcproject3.dto.BookingPage;
+import org.example.apcproject3.dto.BookingSummary;
 import org.example.apcproject3.entity.*;
 import org.example.apcproject3.repository.BookingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,9 +32,11 @@ public class BookingService {
     @Autowired
     private ServiceProviderService serviceProviderService;
 
-    // Temporarily disabled - depends on MultiDatabaseService
-    // @Autowired
-    // private MultiDatabaseService multiDatabaseService;
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Autowired
+    private BookingOutboxService bookingOutboxService;
 
     public Booking createBooking(Booking booking) {
         // Validate booking times
@@ -37,16 +44,13 @@ public class BookingService {
             throw new RuntimeException("End time must be after start time");
         }
 
-        // Check if provider is available during the requested time
-        List<Booking> conflictingBookings = bookingRepository.findProviderBookingsInTimeRange(
-            booking.getProvider(),
-            booking.getStartTime(),
-            booking.getEndTime()
-        );
-
-        if (!conflictingBookings.isEmpty()) {
-            throw new RuntimeException("Provider is not available during the requested time slot");
-        }
+        // Check if provider is available and hold the time window until this
+        // transaction completes, so concurrent requests cannot double-book it
+        BookingIntervalIndex.Reservation reservation = bookingIntervalIndex.reserve(
+                booking.getProvider().getId(),
+                booking.getStartTime(),
+                booking.getEndTime())
+            .orElseThrow(() -> new RuntimeException("Provider is not available during the requested time slot"));
 
         // Calculate total amount if not provided
         if (booking.getTotalAmount() == null) {
@@ -54,17 +58,19 @@ public class BookingService {
             booking.setTotalAmount(duration.multiply(booking.getProvider().getHourlyRate()));
         }
 
-        // Mark corresponding availability slot as unavailable
-        markAvailabilitySlotAsUnavailable(booking);
-
         booking.setStatus(BookingStatus.PENDING);
         booking.setCreatedAt(LocalDateTime.now());
         booking.setUpdatedAt(LocalDateTime.now());
 
         Booking savedBooking = bookingRepository.save(booking);
+        reservation.bind(savedBooking);
+
+        // Mark corresponding availability slot as unavailable (after saving, so
+        // the availability calendar sees the new booking)
+        markAvailabilitySlotAsUnavailable(savedBooking);
 
-        // Sync to MongoDB and JDBC - temporarily disabled
-        // multiDatabaseService.syncBookingAcrossAllDatabases(savedBooking, "BOOKING_CREATED");
+        // Secondary stores are synced from the outbox after commit
+        bookingOutboxService.record(savedBooking, "BOOKING_CREATED");
 
         return savedBooking;
     }
@@ -110,8 +116,7 @@ public class BookingService {
         booking.setUpdatedAt(LocalDateTime.now());
         Booking savedBooking = bookingRepository.save(booking);
 
-        // Sync to MongoDB and JDBC
-        // multiDatabaseService.syncBookingAcrossAllDatabases(savedBooking, "BOOKING_CONFIRMED");
+        bookingOutboxService.record(savedBooking, "BOOKING_CONFIRMED");
 
         return savedBooking;
     }
@@ -128,8 +133,7 @@ public class BookingService {
         booking.setUpdatedAt(LocalDateTime.now());
         Booking savedBooking = bookingRepository.save(booking);
 
-        // Sync to MongoDB and JDBC
-        // multiDatabaseService.syncBookingAcrossAllDatabases(savedBooking, "SERVICE_STARTED");
+        bookingOutboxService.record(savedBooking, "SERVICE_STARTED");
 
         return savedBooking;
     }
@@ -146,8 +150,7 @@ public class BookingService {
         booking.setUpdatedAt(LocalDateTime.now());
         Booking savedBooking = bookingRepository.save(booking);
 
-        // Sync to MongoDB and JDBC
-        // multiDatabaseService.syncBookingAcrossAllDatabases(savedBooking, "BOOKING_COMPLETED");
+        bookingOutboxService.record(savedBooking, "BOOKING_COMPLETED");
 
         return savedBooking;
     }
@@ -165,8 +168,12 @@ public class BookingService {
 
         // Make the availability slot available again
         makeAvailabilitySlotAvailable(booking);
+        bookingIntervalIndex.remove(booking);
 
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingOutboxService.record(savedBooking, "BOOKING_CANCELLED");
+
+        return savedBooking;
     }
 
     public Booking updateBooking(Booking booking) {
@@ -185,6 +192,11 @@ public class BookingService {
         return bookingRepository.save(existingBooking);
     }
 
+    @Transactional(readOnly = true)
+    public List<BookingSummary> getBookingSummariesByStatus(BookingStatus status) {
+        return bookingRepository.findSummariesByStatus(status);
+    }
+
     @Transactional(readOnly = true)
     public List<Booking> findBookingsBetweenTimes(LocalDateTime startTime, LocalDateTime endTime) {
         return bookingRepository.findBookingsBetweenTimes(startTime, endTime);
@@ -195,23 +207,30 @@ public class BookingService {
         return bookingRepository.countCompletedBookingsByProvider(provider);
     }
 
-    @Transactional(readOnly = true)
-    public CompletableFuture<List<Booking>> findBookingsAsync() {
-        return CompletableFuture.supplyAsync(() -> bookingRepository.findAll());
-    }
-
     // Add missing methods for BookingController
-    @Transactional(readOnly = true)
-    public List<Booking> getBookingsByCustomer(User customer) {
-        return bookingRepository.findByCustomer(customer);
-    }
 
+    // One page of the customer's booking history, newest first, optionally
+    // limited to some statuses. The cursor holds (createdAt, id) of the last
+    // row returned, so deep pages cost the same as the first.
     @Transactional(readOnly = true)
-    public List<Booking> getBookingsByCustomerAndStatus(User customer, String[] statuses) {
-        List<BookingStatus> bookingStatuses = Arrays.stream(statuses)
-                .map(status -> BookingStatus.valueOf(status.toUpperCase()))
-                .collect(Collectors.toList());
-        return bookingRepository.findByCustomerAndStatusIn(customer, bookingStatuses);
+    public BookingPage getBookingsByCustomer(User customer, String[] statuses, String cursor, int limit) {
+        Collection<BookingStatus> bookingStatuses = statuses == null || statuses.length == 0
+                ? EnumSet.allOf(BookingStatus.class)
+                : Arrays.stream(statuses)
+                        .map(status -> BookingStatus.valueOf(status.toUpperCase()))
+                        .collect(Collectors.toList());
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest rows = PageRequest.of(0, limit + 1);
+        List<BookingSummary> bookings;
+        if (cursor == null || cursor.isBlank()) {
+            bookings = bookingRepository.findCustomerHistoryFirstPage(customer.getId(), bookingStatuses, rows);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            bookings = bookingRepository.findCustomerHistoryAfter(customer.getId(), bookingStatuses,
+                    after.value(LocalDateTime::parse), after.id(), rows);
+        }
+        return toPage(bookings, limit, BookingSummary::getCreatedAt);
     }
 
     @Transactional(readOnly = true)
@@ -219,18 +238,29 @@ public class BookingService {
         return bookingRepository.findById(id);
     }
 
+    // One page of the provider's bookings in start time order, keyed on (startTime, id)
     @Transactional(readOnly = true)
-    public List<Booking> getBookingsByProvider(User user) {
+    public BookingPage getBookingsByProvider(User user, String cursor, int limit) {
         ServiceProvider provider = serviceProviderService.findByUser(user)
                 .orElseThrow(() -> new RuntimeException("Service provider not found for user"));
-        return bookingRepository.findByProvider(provider);
+
+        PageRequest rows = PageRequest.of(0, limit + 1);
+        List<BookingSummary> bookings;
+        if (cursor == null || cursor.isBlank()) {
+            bookings = bookingRepository.findProviderScheduleFirstPage(provider.getId(), rows);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            bookings = bookingRepository.findProviderScheduleAfter(provider.getId(),
+                    after.value(LocalDateTime::parse), after.id(), rows);
+        }
+        return toPage(bookings, limit, BookingSummary::getStartTime);
     }
 
     @Transactional(readOnly = true)
-    public List<Booking> getRecentBookingsByProvider(User user, int limit) {
+    public List<BookingSummary> getRecentBookingsByProvider(User user, int limit) {
         ServiceProvider provider = serviceProviderService.findByUser(user)
                 .orElseThrow(() -> new RuntimeException("Service provider not found for user"));
-        return bookingRepository.findTop5ByProviderOrderByCreatedAtDesc(provider);
+        return bookingRepository.findRecentSummariesByProviderId(provider.getId(), PageRequest.of(0, limit));
     }
 
     public Booking updateBookingStatus(Long bookingId, BookingStatus status, User user) {
@@ -242,9 +272,32 @@ public class BookingService {
             throw new RuntimeException("You can only update bookings for your services");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
+
+        // A reactivated booking takes its window back only if nothing else holds it
+        BookingIntervalIndex.Reservation reservation = null;
+        if (previousStatus == BookingStatus.CANCELLED && status != BookingStatus.CANCELLED) {
+            reservation = bookingIntervalIndex.reserve(
+                    booking.getProvider().getId(),
+                    booking.getStartTime(),
+                    booking.getEndTime())
+                .orElseThrow(() -> new RuntimeException("Provider is no longer available during this booking's time slot"));
+        }
+
         booking.setStatus(status);
         booking.setUpdatedAt(LocalDateTime.now());
-        return bookingRepository.save(booking);
+
+        if (status == BookingStatus.CANCELLED && previousStatus != BookingStatus.CANCELLED) {
+            bookingIntervalIndex.remove(booking);
+        }
+
+        Booking savedBooking = bookingRepository.save(booking);
+        if (reservation != null) {
+            reservation.bind(savedBooking);
+        }
+        bookingOutboxService.record(savedBooking, "BOOKING_STATUS_CHANGED");
+
+        return savedBooking;
     }
 
     public Booking cancelBooking(Long bookingId, User currentUser) {
@@ -266,22 +319,18 @@ public class BookingService {
 
         // Make availability slot available again
         restoreAvailabilitySlot(booking);
+        bookingIntervalIndex.remove(booking);
 
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingOutboxService.record(savedBooking, "BOOKING_CANCELLED");
+
+        return savedBooking;
     }
 
     private void restoreAvailabilitySlot(Booking booking) {
         try {
-            // Find the availability slot that corresponds to this booking and mark it as available
-            List<AvailabilitySlot> slots = availabilitySlotService.findByProvider(booking.getProvider());
-            for (AvailabilitySlot slot : slots) {
-                if (slot.getStartTime().equals(booking.getStartTime()) &&
-                    slot.getEndTime().equals(booking.getEndTime()) &&
-                    !slot.isAvailable()) {
-                    availabilitySlotService.markSlotAsAvailable(slot.getId());
-                    break;
-                }
-            }
+            // Mark the availability slot that corresponds to this booking as available
+            makeAvailabilitySlotAvailable(booking);
         } catch (Exception e) {
             System.err.println("Error restoring availability slot: " + e.getMessage());
         }
@@ -293,32 +342,32 @@ public class BookingService {
     }
 
     private void markAvailabilitySlotAsUnavailable(Booking booking) {
-        // Find and mark the corresponding availability slot as unavailable
-        // This is a simplified implementation
-        List<AvailabilitySlot> slots = availabilitySlotService.findAvailableSlotsByProviderAndDate(
+        // Mark the slot matching the booking window as unavailable with a single indexed update
+        availabilitySlotService.markSlotAvailabilityForWindow(
             booking.getProvider().getId(),
-            booking.getStartTime()
+            booking.getStartTime(),
+            booking.getEndTime(),
+            false
         );
-
-        for (AvailabilitySlot slot : slots) {
-            if (slot.getStartTime().equals(booking.getStartTime()) &&
-                slot.getEndTime().equals(booking.getEndTime())) {
-                availabilitySlotService.markSlotAsUnavailable(slot.getId());
-                break;
-            }
-        }
     }
 
     private void makeAvailabilitySlotAvailable(Booking booking) {
-        // Find and mark the corresponding availability slot as available again
-        List<AvailabilitySlot> slots = availabilitySlotService.findByProvider(booking.getProvider());
-
-        for (AvailabilitySlot slot : slots) {
-            if (slot.getStartTime().equals(booking.getStartTime()) &&
-                slot.getEndTime().equals(booking.getEndTime())) {
-                availabilitySlotService.markSlotAsAvailable(slot.getId());
-                break;
-            }
+        // Mark the slot matching the booking window as available again
+        availabilitySlotService.markSlotAvailabilityForWindow(
+            booking.getProvider().getId(),
+            booking.getStartTime(),
+            booking.getEndTime(),
+            true
+        );
+    }
+
+    private static BookingPage toPage(List<BookingSummary> bookings, int limit,
+                                      Function<BookingSummary, LocalDateTime> sortKey) {
+        if (bookings.size() <= limit) {
+            return new BookingPage(bookings, null);
         }
+        List<BookingSummary> page = bookings.subList(0, limit);
+        BookingSummary last = page.get(limit - 1);
+        return new BookingPage(page, KeysetCursor.encode(sortKey.apply(last), last.getId()));
     }
 }
@@ -0,0 +1,101 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.ServiceCategory;
+import org.example.apcproject3.repository.ServiceCategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Read-through cache of the active category catalog. Readers get an immutable
+// snapshot; category writes drop it once they commit and the next reader
+// loads a fresh one. Cached categories are detached copies without their
+// provider collections, so they are safe to render outside a session.
+@Component
+public class CategoryCatalogCache {
+
+    @Autowired
+    private ServiceCategoryRepository serviceCategoryRepository;
+
+    private final AtomicReference<List<ServiceCategory>> snapshot = new AtomicReference<>();
+
+    // Bumped on every invalidation so a load that raced with a write is not installed
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public List<ServiceCategory> getActiveCategoriesOrdered() {
+        List<ServiceCategory> current = snapshot.get();
+        if (current != null) {
+            hits.incrementAndGet();
+            return current;
+        }
+
+        misses.incrementAndGet();
+        long loadedGeneration = generation.get();
+        List<ServiceCategory> loaded = copyOf(serviceCategoryRepository.findAllActiveCategoriesOrdered());
+        if (snapshot.compareAndSet(null, loaded) && generation.get() != loadedGeneration) {
+            snapshot.compareAndSet(loaded, null);
+        }
+        return loaded;
+    }
+
+    // Drops the snapshot after the surrounding transaction commits
+    public void invalidate() {
+        Runnable drop = () -> {
+            generation.incrementAndGet();
+            snapshot.set(null);
+            invalidations.incrementAndGet();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop.run();
+                }
+            });
+        } else {
+            drop.run();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("invalidations", invalidations.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        List<ServiceCategory> current = snapshot.get();
+        stats.put("cachedCategories", current != null ? current.size() : 0);
+        return stats;
+    }
+
+    private static List<ServiceCategory> copyOf(List<ServiceCategory> categories) {
+        List<ServiceCategory> copies = new ArrayList<>(categories.size());
+        for (ServiceCategory category : categories) {
+            ServiceCategory copy = new ServiceCategory(category.getName(), category.getDescription());
+            copy.setId(category.getId());
+            copy.setIcon(category.getIcon());
+            copy.setActive(category.isActive());
+            copy.setProviders(Collections.emptyList());
+            copy.setCreatedAt(category.getCreatedAt());
+            copy.setUpdatedAt(category.getUpdatedAt());
+            copies.add(copy);
+        }
+        return Collections.unmodifiableList(copies);
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.apcproject3.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.apcproject3.dto.HomePageModel;
+import org.example.apcproject3.dto.ProviderCard;
+import org.example.apcproject3.entity.ServiceCategory;
+import org.example.apcproject3.repository.ServiceProviderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Serves the landing page model from memory. Writes that change what the page
+// shows (ratings, provider profiles, categories) mark it stale once they
+// commit; a single background thread rebuilds it and readers keep getting the
+// previous version until the new one is installed.
+@Service
+public class HomePageService {
+
+    static final BigDecimal TOP_PROVIDER_MIN_RATING = new BigDecimal("4.0");
+    static final int TOP_PROVIDER_COUNT = 6;
+
+    @Autowired
+    private CategoryCatalogCache categoryCatalogCache;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    private final AtomicReference<HomePageModel> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    // Not synchronized: the rebuild queries the database, and a virtual thread
+    // blocking inside a monitor would pin its carrier thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Coalesces bursts of writes into one queued rebuild
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "home-page-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HomePageModel getHomePage() {
+        HomePageModel model = current.get();
+        if (model != null) {
+            return model;
+        }
+        // Only the very first request after startup builds inline
+        rebuildLock.lock();
+        try {
+            model = current.get();
+            return model != null ? model : rebuildLocked();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Schedules a rebuild after the surrounding transaction commits
+    public void markStale() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queueRebuild();
+                }
+            });
+        } else {
+            queueRebuild();
+        }
+    }
+
+    // Backstop for changes that are not signalled, e.g. a provider renaming their account
+    @Scheduled(fixedDelayString = "${home.page.refresh-ms:300000}",
+               initialDelayString = "${home.page.refresh-ms:300000}")
+    public void refreshPeriodically() {
+        queueRebuild();
+    }
+
+    HomePageModel rebuild() {
+        rebuildLock.lock();
+        try {
+            return rebuildLocked();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private HomePageModel rebuildLocked() {
+        List<ServiceCategory> categories = categoryCatalogCache.getActiveCategoriesOrdered();
+        List<ProviderCard> topProviders = serviceProviderRepository.findTopRatedProviderCards(
+                TOP_PROVIDER_MIN_RATING, PageRequest.of(0, TOP_PROVIDER_COUNT));
+
+        HomePageModel model = new HomePageModel(versions.incrementAndGet(), categories,
+                Collections.unmodifiableList(topProviders));
+        current.set(model);
+        return model;
+    }
+
+    private void queueRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            // Cleared first so a write landing mid-rebuild queues another pass
+            rebuildQueued.set(false);
+            try {
+                rebuild();
+            } catch (Exception e) {
+                System.err.println("Failed to rebuild home page model: " + e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
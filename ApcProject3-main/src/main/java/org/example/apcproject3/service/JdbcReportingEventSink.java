@@ -0,0 +1,66 @@
+package org.example.apcproject3.service;
+
+// Temporarily disabled - depends on JdbcReportingService which requires MySQL
+/*
+import org.example.apcproject3.entity.BookingOutboxEvent;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.example.apcproject3.repository.ServiceProviderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Updates the MySQL provider performance table from completed bookings
+@Component
+public class JdbcReportingEventSink implements BookingEventSink {
+
+    @Autowired
+    private JdbcReportingService jdbcReportingService;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Override
+    public String getName() {
+        return "jdbc-reporting";
+    }
+
+    @Override
+    public void deliver(List<BookingOutboxEvent> events) {
+        Set<Long> providerIds = new HashSet<>();
+        for (BookingOutboxEvent event : events) {
+            if ("BOOKING_COMPLETED".equals(event.getEventType())) {
+                providerIds.add(event.getProviderId());
+            }
+        }
+        if (providerIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, ServiceProvider> providers = new HashMap<>();
+        for (ServiceProvider provider : serviceProviderRepository.findAllById(providerIds)) {
+            providers.put(provider.getId(), provider);
+        }
+
+        for (BookingOutboxEvent event : events) {
+            ServiceProvider provider = providers.get(event.getProviderId());
+            if (provider == null || !"BOOKING_COMPLETED".equals(event.getEventType())) {
+                continue;
+            }
+
+            jdbcReportingService.updateProviderPerformance(
+                provider.getId(),
+                provider.getUser().getFirstName() + " " + provider.getUser().getLastName(),
+                event.getTotalAmount() != null ? event.getTotalAmount().doubleValue() : 0.0,
+                1, // Increment completed jobs
+                2.0, // Completion time (simplified)
+                4.5 // Satisfaction score, would come from reviews
+            );
+        }
+    }
+}
+*/
@@ -0,0 +1,51 @@
+package org.example.apcproject3.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.apcproject3.entity.ServiceActionLog;
+import org.example.apcproject3.repository.ServiceActionLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Keeps the audit trail in the primary (embedded) database. One transaction
+// per batch; sequence ids plus hibernate.jdbc.batch_size turn it into batched inserts.
+@Service
+@Transactional
+public class JpaServiceLogStore implements ServiceLogStore {
+
+    private static final int MAX_METADATA_LENGTH = 2000;
+
+    @Autowired
+    private ServiceActionLogRepository serviceActionLogRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String getName() {
+        return "jpa";
+    }
+
+    @Override
+    public void writeAll(List<ServiceActionLog> entries) {
+        for (ServiceActionLog entry : entries) {
+            if (entry.getMetadata() != null && entry.getMetadataJson() == null) {
+                entry.setMetadataJson(toJson(entry));
+            }
+        }
+        serviceActionLogRepository.saveAll(entries);
+    }
+
+    private String toJson(ServiceActionLog entry) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(entry.getMetadata());
+        } catch (JsonProcessingException e) {
+            json = String.valueOf(entry.getMetadata());
+        }
+        return json.length() > MAX_METADATA_LENGTH ? json.substring(0, MAX_METADATA_LENGTH) : json;
+    }
+}
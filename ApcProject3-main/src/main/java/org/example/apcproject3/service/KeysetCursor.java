@@ -0,0 +1,46 @@
+package org.example.apcproject3.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+// Opaque keyset pagination cursor: the sort value and id of the last row of a
+// page, Base64url-encoded so clients pass it back without interpreting it
+final class KeysetCursor {
+
+    private final String value;
+    private final long id;
+
+    private KeysetCursor(String value, long id) {
+        this.value = value;
+        this.id = id;
+    }
+
+    static String encode(Object value, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((value + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The id is split off at the last separator, values may contain ':' themselves
+            int separator = decoded.lastIndexOf(':');
+            return new KeysetCursor(decoded.substring(0, separator), Long.parseLong(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    <T> T value(Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    long id() {
+        return id;
+    }
+}
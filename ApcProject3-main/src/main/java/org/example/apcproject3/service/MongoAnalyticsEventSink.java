@@ -0,0 +1,68 @@
+package org.example.apcproject3.service;
+
+// Temporarily disabled - MongoDB dependency removed from pom.xml
+/*
+import org.example.apcproject3.entity.BookingOutboxEvent;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.example.apcproject3.repository.ServiceProviderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Updates the MongoDB provider analytics documents from completed bookings.
+// The service log entries are written by ServiceLogWriter (MongoServiceLogStore).
+@Component
+public class MongoAnalyticsEventSink implements BookingEventSink {
+
+    @Autowired
+    private MongoAnalyticsService mongoAnalyticsService;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Override
+    public String getName() {
+        return "mongo-analytics";
+    }
+
+    @Override
+    public void deliver(List<BookingOutboxEvent> events) {
+        // One provider lookup for the whole batch
+        Set<Long> providerIds = new HashSet<>();
+        for (BookingOutboxEvent event : events) {
+            if ("BOOKING_COMPLETED".equals(event.getEventType())) {
+                providerIds.add(event.getProviderId());
+            }
+        }
+        if (providerIds.isEmpty()) {
+            return;
+        }
+        Map<Long, ServiceProvider> providers = new HashMap<>();
+        for (ServiceProvider provider : serviceProviderRepository.findAllById(providerIds)) {
+            providers.put(provider.getId(), provider);
+        }
+
+        for (BookingOutboxEvent event : events) {
+            ServiceProvider provider = providers.get(event.getProviderId());
+            if (provider == null || !"BOOKING_COMPLETED".equals(event.getEventType())) {
+                continue;
+            }
+
+            if (event.getTotalAmount() != null) {
+                mongoAnalyticsService.updateProviderBookingStats(
+                    provider.getId(),
+                    provider.getUser().getFirstName() + " " + provider.getUser().getLastName(),
+                    provider.getCategory().getName(),
+                    event.getTotalAmount().doubleValue(),
+                    4.5 // Default rating, would come from actual review
+                );
+            }
+        }
+    }
+}
+*/
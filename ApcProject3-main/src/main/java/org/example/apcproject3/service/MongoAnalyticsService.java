@@ -4,6 +4,7 @@ package org.example.apcproject3.service;
 /*
 import org.example.apcproject3.document.ServiceAnalytics;
 import org.example.apcproject3.document.ServiceLog;
+import org.example.apcproject3.entity.ServiceActionLog;
 import org.example.apcproject3.repository.ServiceAnalyticsRepository;
 import org.example.apcproject3.repository.ServiceLogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,9 @@ public class MongoAnalyticsService {
     @Autowired
     private ServiceLogRepository logRepository;
 
+    @Autowired
+    private ServiceLogWriter serviceLogWriter;
+
     // Service Analytics Operations
     public ServiceAnalytics createOrUpdateProviderAnalytics(Long providerId, String providerName, String category) {
         Optional<ServiceAnalytics> existing = analyticsRepository.findByProviderId(providerId);
@@ -76,21 +80,21 @@ public class MongoAnalyticsService {
     }
 
     // Service Logging Operations
-    public ServiceLog logServiceAction(Long bookingId, Long providerId, Long customerId,
-                                     String action, String description) {
-        ServiceLog log = new ServiceLog(bookingId, providerId, customerId, action, description);
-        return logRepository.save(log);
+    // Buffered: written in bulk by ServiceLogWriter, off the caller's thread
+    public boolean logServiceAction(Long bookingId, Long providerId, Long customerId,
+                                    String action, String description) {
+        return serviceLogWriter.log(new ServiceActionLog(bookingId, providerId, customerId, action, description));
     }
 
-    public ServiceLog logServiceActionWithMetadata(Long bookingId, Long providerId, Long customerId,
-                                                 String action, String description,
-                                                 Map<String, Object> metadata,
-                                                 String ipAddress, String userAgent) {
-        ServiceLog log = new ServiceLog(bookingId, providerId, customerId, action, description);
+    public boolean logServiceActionWithMetadata(Long bookingId, Long providerId, Long customerId,
+                                                String action, String description,
+                                                Map<String, Object> metadata,
+                                                String ipAddress, String userAgent) {
+        ServiceActionLog log = new ServiceActionLog(bookingId, providerId, customerId, action, description);
         log.setMetadata(metadata);
         log.setIpAddress(ipAddress);
         log.setUserAgent(userAgent);
-        return logRepository.save(log);
+        return serviceLogWriter.log(log);
     }
 
     public List<ServiceLog> getServiceLogsByProvider(Long providerId) {
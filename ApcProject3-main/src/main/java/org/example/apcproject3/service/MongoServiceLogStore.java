@@ -0,0 +1,44 @@
+package org.example.apcproject3.service;
+
+// Temporarily disabled - MongoDB dependency removed from pom.xml
+/*
+import org.example.apcproject3.document.ServiceLog;
+import org.example.apcproject3.entity.ServiceActionLog;
+import org.example.apcproject3.repository.ServiceLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps the audit trail in the MongoDB service_logs collection; saveAll of new
+// documents is a single bulk insert
+@Component
+@Primary
+public class MongoServiceLogStore implements ServiceLogStore {
+
+    @Autowired
+    private ServiceLogRepository logRepository;
+
+    @Override
+    public String getName() {
+        return "mongo";
+    }
+
+    @Override
+    public void writeAll(List<ServiceActionLog> entries) {
+        List<ServiceLog> logs = new ArrayList<>(entries.size());
+        for (ServiceActionLog entry : entries) {
+            ServiceLog log = new ServiceLog(entry.getBookingId(), entry.getProviderId(), entry.getCustomerId(),
+                    entry.getAction(), entry.getDescription());
+            log.setMetadata(entry.getMetadata());
+            log.setIpAddress(entry.getIpAddress());
+            log.setUserAgent(entry.getUserAgent());
+            log.setTimestamp(entry.getCreatedAt());
+            logs.add(log);
+        }
+        logRepository.saveAll(logs);
+    }
+}
+*/
@@ -4,8 +4,6 @@ package org.example.apcproject3.service;
 /*
 import org.example.apcproject3.document.ServiceAnalytics;
 import org.example.apcproject3.document.ServiceLog;
-import org.example.apcproject3.entity.Booking;
-import org.example.apcproject3.entity.ServiceProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Service;
@@ -110,61 +108,8 @@ public class MultiDatabaseService implements CommandLineRunner {
         );
     }
 
-    // Method to sync data between JPA, MongoDB, and JDBC when bookings are created/updated
-    public void syncBookingAcrossAllDatabases(Booking booking, String action) {
-        try {
-            // 1. Update MongoDB analytics
-            if (booking.getProvider() != null && booking.getCustomer() != null) {
-                String providerName = booking.getProvider().getUser().getFirstName() + " " +
-                                    booking.getProvider().getUser().getLastName();
-                String category = booking.getProvider().getCategory().getName();
-
-                // Log action in MongoDB
-                mongoAnalyticsService.logServiceAction(
-                    booking.getId(),
-                    booking.getProvider().getId(),
-                    booking.getCustomer().getId(),
-                    action,
-                    "Booking " + action.toLowerCase() + " for " + category + " service"
-                );
-
-                // Update analytics if booking is completed
-                if ("BOOKING_COMPLETED".equals(action) && booking.getTotalAmount() != null) {
-                    mongoAnalyticsService.updateProviderBookingStats(
-                        booking.getProvider().getId(),
-                        providerName,
-                        category,
-                        booking.getTotalAmount().doubleValue(),
-                        4.5 // Default rating, would come from actual review
-                    );
-                }
-            }
-
-            // 2. Update JDBC performance metrics
-            if ("BOOKING_COMPLETED".equals(action) && booking.getProvider() != null) {
-                ServiceProvider provider = booking.getProvider();
-                String providerName = provider.getUser().getFirstName() + " " +
-                                    provider.getUser().getLastName();
-
-                // Calculate completion time (simplified)
-                double completionTime = 2.0; // Would calculate actual time
-                double satisfactionScore = 4.5; // Would come from reviews
-
-                jdbcReportingService.updateProviderPerformance(
-                    provider.getId(),
-                    providerName,
-                    booking.getTotalAmount() != null ? booking.getTotalAmount().doubleValue() : 0.0,
-                    1, // Increment completed jobs
-                    completionTime,
-                    satisfactionScore
-                );
-            }
-
-            System.out.println("✅ Booking data synced across all databases: " + action);
-        } catch (Exception e) {
-            System.err.println("❌ Error syncing booking data: " + e.getMessage());
-        }
-    }
+    // Booking sync now goes through the booking outbox (BookingOutboxService),
+    // delivered by MongoAnalyticsEventSink and JdbcReportingEventSink
 
     // Comprehensive analytics method combining all data sources
     public Map<String, Object> getComprehensiveAnalytics() {
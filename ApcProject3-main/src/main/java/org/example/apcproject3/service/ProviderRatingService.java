@@ -0,0 +1,234 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.ProviderRatingAggregate;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.example.apcproject3.repository.ProviderRatingAggregateRepository;
+import org.example.apcproject3.repository.ReviewRepository;
+import org.example.apcproject3.repository.ServiceProviderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps provider ratings as incremental aggregates (sum, count, 1-5 star
+// histogram). Every review write applies a constant-size delta in the same
+// transaction, and ServiceProvider.rating/totalReviews are derived from the
+// aggregate instead of re-running AVG/COUNT over all reviews.
+@Service
+@Transactional
+public class ProviderRatingService {
+
+    @Autowired
+    private ProviderRatingAggregateRepository providerRatingAggregateRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private HomePageService homePageService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public void addRating(ServiceProvider provider, int rating) {
+        long[] stars = new long[5];
+        stars[rating - 1] = 1;
+        apply(provider, rating, 1, stars);
+    }
+
+    public void removeRating(ServiceProvider provider, int rating) {
+        long[] stars = new long[5];
+        stars[rating - 1] = -1;
+        apply(provider, -rating, -1, stars);
+    }
+
+    public void changeRating(ServiceProvider provider, int oldRating, int newRating) {
+        if (oldRating == newRating) {
+            return;
+        }
+        long[] stars = new long[5];
+        stars[oldRating - 1] = -1;
+        stars[newRating - 1] = 1;
+        apply(provider, newRating - oldRating, 0, stars);
+    }
+
+    @Transactional(readOnly = true)
+    public double getAverageRating(Long providerId) {
+        List<Object[]> totals = providerRatingAggregateRepository.findTotals(providerId);
+        if (totals.isEmpty() || (Long) totals.get(0)[1] == 0) {
+            return 0.0;
+        }
+        return (double) (Long) totals.get(0)[0] / (Long) totals.get(0)[1];
+    }
+
+    @Transactional(readOnly = true)
+    public long getReviewCount(Long providerId) {
+        List<Object[]> totals = providerRatingAggregateRepository.findTotals(providerId);
+        return totals.isEmpty() ? 0 : (Long) totals.get(0)[1];
+    }
+
+    // Number of reviews per star rating, 1 through 5
+    @Transactional(readOnly = true)
+    public Map<Integer, Long> getHistogram(Long providerId) {
+        ProviderRatingAggregate aggregate = providerRatingAggregateRepository.findById(providerId)
+                .orElse(new ProviderRatingAggregate(providerId));
+
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        histogram.put(1, aggregate.getStars1());
+        histogram.put(2, aggregate.getStars2());
+        histogram.put(3, aggregate.getStars3());
+        histogram.put(4, aggregate.getStars4());
+        histogram.put(5, aggregate.getStars5());
+        return histogram;
+    }
+
+    // Compares every aggregate with the reviews table in one grouped pass and
+    // rebuilds the ones that drifted. Returns the number of providers corrected.
+    // The pass itself runs outside a transaction; each provider is rebuilt in
+    // its own, so its row lock is released as soon as that provider is done.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(fixedDelayString = "${rating.reconcile.interval-ms:3600000}",
+               initialDelayString = "${rating.reconcile.initial-delay-ms:600000}")
+    public int reconcileAll() {
+        Map<Long, Object[]> actual = new HashMap<>();
+        for (Object[] row : reviewRepository.aggregateRatingsByProvider()) {
+            actual.put((Long) row[0], row);
+        }
+
+        // The two reads are not taken at the same instant, so a mismatch only
+        // marks a candidate; reconcileProvider re-checks it under the lock
+        Set<Long> drifted = new LinkedHashSet<>();
+        for (Object[] stored : providerRatingAggregateRepository.findAllTotals()) {
+            Object[] row = actual.remove((Long) stored[0]);
+            if (!sameTotals(stored, row)) {
+                drifted.add((Long) stored[0]);
+            }
+        }
+        // Providers with reviews but no aggregate yet
+        drifted.addAll(actual.keySet());
+
+        int corrected = 0;
+        for (Long providerId : drifted) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> reconcileProvider(providerId)))) {
+                    corrected++;
+                }
+            } catch (Exception e) {
+                // Left for the next pass; the other providers are still reconciled
+                System.err.println("Failed to reconcile rating aggregate of provider " + providerId + ": " + e.getMessage());
+            }
+        }
+
+        if (corrected > 0) {
+            System.out.println("Reconciled rating aggregates of " + corrected + " provider(s)");
+        }
+        return corrected;
+    }
+
+    // Rebuilds one provider's aggregate from its reviews; true when it had drifted.
+    // Holds the provider row lock that every rating write takes first, so no
+    // delta can land between reading the reviews and overwriting the totals.
+    public boolean reconcileProvider(Long providerId) {
+        ServiceProvider provider = serviceProviderRepository.findByIdForUpdate(providerId).orElse(null);
+        if (provider == null) {
+            return false;
+        }
+
+        ProviderRatingAggregate aggregate = providerRatingAggregateRepository.findById(providerId)
+                .orElse(new ProviderRatingAggregate(providerId));
+        List<Object[]> rows = reviewRepository.aggregateRatingsForProvider(providerId);
+        if (!copyTotals(aggregate, rows.isEmpty() ? null : rows.get(0))) {
+            return false;
+        }
+        providerRatingAggregateRepository.save(aggregate);
+        applyToProvider(provider, aggregate.getRatingSum(), aggregate.getRatingCount());
+        return true;
+    }
+
+    private void apply(ServiceProvider provider, long sumDelta, long countDelta, long[] stars) {
+        // Provider row first, then the aggregate row (taken by applyDelta); the
+        // same order as reconcileProvider. Two first reviews of a provider
+        // serialize here, so only one of them finds no row and inserts it.
+        serviceProviderRepository.findByIdForUpdate(provider.getId());
+
+        int updated = providerRatingAggregateRepository.applyDelta(provider.getId(), sumDelta, countDelta,
+                stars[0], stars[1], stars[2], stars[3], stars[4], LocalDateTime.now());
+
+        if (updated == 0) {
+            // First review of this provider (or a provider from before aggregates
+            // existed): build the row once from the reviews, which already include
+            // the write being applied
+            ProviderRatingAggregate aggregate = new ProviderRatingAggregate(provider.getId());
+            List<Object[]> rows = reviewRepository.aggregateRatingsForProvider(provider.getId());
+            copyTotals(aggregate, rows.isEmpty() ? null : rows.get(0));
+            providerRatingAggregateRepository.save(aggregate);
+            applyToProvider(provider, aggregate.getRatingSum(), aggregate.getRatingCount());
+            return;
+        }
+
+        List<Object[]> totals = providerRatingAggregateRepository.findTotals(provider.getId());
+        applyToProvider(provider, (Long) totals.get(0)[0], (Long) totals.get(0)[1]);
+    }
+
+    private void applyToProvider(ServiceProvider provider, long ratingSum, long ratingCount) {
+        BigDecimal rating = ratingCount == 0
+                ? BigDecimal.ZERO
+                : BigDecimal.valueOf(ratingSum).divide(BigDecimal.valueOf(ratingCount), 2, RoundingMode.HALF_UP);
+        provider.setRating(rating);
+        provider.setTotalReviews((int) ratingCount);
+        serviceProviderRepository.save(provider);
+        homePageService.markStale();
+    }
+
+    // Stored totals (as returned by findAllTotals) against review totals (or null for no reviews)
+    private static boolean sameTotals(Object[] stored, Object[] row) {
+        for (int i = 1; i < 8; i++) {
+            long expected = row == null || row[i] == null ? 0 : ((Number) row[i]).longValue();
+            if (((Number) stored[i]).longValue() != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Copies review totals (row as returned by the ReviewRepository aggregate
+    // queries, or null for no reviews) into the aggregate; true when anything changed
+    private static boolean copyTotals(ProviderRatingAggregate aggregate, Object[] row) {
+        long count = row == null ? 0 : (Long) row[1];
+        long sum = row == null || row[2] == null ? 0 : ((Number) row[2]).longValue();
+        long[] stars = new long[5];
+        for (int i = 0; i < 5 && row != null; i++) {
+            stars[i] = row[3 + i] == null ? 0 : ((Number) row[3 + i]).longValue();
+        }
+
+        boolean changed = aggregate.getRatingCount() != count || aggregate.getRatingSum() != sum
+                || aggregate.getStars1() != stars[0] || aggregate.getStars2() != stars[1]
+                || aggregate.getStars3() != stars[2] || aggregate.getStars4() != stars[3]
+                || aggregate.getStars5() != stars[4];
+
+        aggregate.setRatingCount(count);
+        aggregate.setRatingSum(sum);
+        aggregate.setStars1(stars[0]);
+        aggregate.setStars2(stars[1]);
+        aggregate.setStars3(stars[2]);
+        aggregate.setStars4(stars[3]);
+        aggregate.setStars5(stars[4]);
+        aggregate.setUpdatedAt(LocalDateTime.now());
+        return changed;
+    }
+}
@@ -11,9 +11,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -29,6 +29,9 @@ public class ReviewService {
     @Autowired
     private ServiceProviderRepository serviceProviderRepository;
 
+    @Autowired
+    private ProviderRatingService providerRatingService;
+
     public Review createReview(Review review) {
         // Validate that booking exists and is completed
         Optional<Booking> bookingOpt = bookingRepository.findById(review.getBooking().getId());
@@ -60,7 +63,7 @@ public class ReviewService {
         Review savedReview = reviewRepository.save(review);
 
         // Update provider's rating and review count
-        updateProviderRating(booking.getProvider());
+        providerRatingService.addRating(booking.getProvider(), savedReview.getRating());
 
         return savedReview;
     }
@@ -86,20 +89,15 @@ public class ReviewService {
     }
 
     public Double getAverageRatingForProvider(Long providerId) {
-        Optional<ServiceProvider> provider = serviceProviderRepository.findById(providerId);
-        if (provider.isEmpty()) {
-            return 0.0;
-        }
-        Double avgRating = reviewRepository.getAverageRatingByProvider(provider.get());
-        return avgRating != null ? avgRating : 0.0;
+        return providerRatingService.getAverageRating(providerId);
     }
 
     public long getReviewCountForProvider(Long providerId) {
-        Optional<ServiceProvider> provider = serviceProviderRepository.findById(providerId);
-        if (provider.isEmpty()) {
-            return 0;
-        }
-        return reviewRepository.countByProvider(provider.get());
+        return providerRatingService.getReviewCount(providerId);
+    }
+
+    public Map<Integer, Long> getRatingHistogramForProvider(Long providerId) {
+        return providerRatingService.getHistogram(providerId);
     }
 
     public List<Review> getRecentReviews() {
@@ -127,6 +125,8 @@ public class ReviewService {
             throw new RuntimeException("You can only update your own reviews");
         }
 
+        int previousRating = existingReview.getRating();
+
         // Update fields
         existingReview.setRating(updatedReview.getRating());
         existingReview.setReviewText(updatedReview.getReviewText());
@@ -135,7 +135,7 @@ public class ReviewService {
         Review savedReview = reviewRepository.save(existingReview);
 
         // Update provider's rating
-        updateProviderRating(existingReview.getProvider());
+        providerRatingService.changeRating(existingReview.getProvider(), previousRating, savedReview.getRating());
 
         return savedReview;
     }
@@ -157,21 +157,6 @@ public class ReviewService {
         reviewRepository.delete(review);
 
         // Update provider's rating after deletion
-        updateProviderRating(provider);
-    }
-
-    private void updateProviderRating(ServiceProvider provider) {
-        try {
-            Double avgRating = reviewRepository.getAverageRatingByProvider(provider);
-            long reviewCount = reviewRepository.countByProvider(provider);
-
-            provider.setRating(avgRating != null ? BigDecimal.valueOf(avgRating.doubleValue()) : BigDecimal.ZERO);
-            provider.setTotalReviews((int) reviewCount);
-
-            serviceProviderRepository.save(provider);
-        } catch (Exception e) {
-            // Log error but don't fail the review operation
-            System.err.println("Error updating provider rating: " + e.getMessage());
-        }
+        providerRatingService.removeRating(provider, review.getRating());
     }
 }
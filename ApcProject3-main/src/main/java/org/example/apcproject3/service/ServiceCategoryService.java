@@ -4,9 +4,11 @@ import org.example.apcproject3.entity.ServiceCategory;
 import org.example.apcproject3.repository.ServiceCategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -16,12 +18,21 @@ public class ServiceCategoryService {
     @Autowired
     private ServiceCategoryRepository serviceCategoryRepository;
 
+    @Autowired
+    private CategoryCatalogCache categoryCatalogCache;
+
+    @Autowired
+    private HomePageService homePageService;
+
     public ServiceCategory createCategory(ServiceCategory category) {
         if (serviceCategoryRepository.existsByName(category.getName())) {
             throw new RuntimeException("Service category with name '" + category.getName() + "' already exists!");
         }
 
-        return serviceCategoryRepository.save(category);
+        ServiceCategory savedCategory = serviceCategoryRepository.save(category);
+        categoryCatalogCache.invalidate();
+        homePageService.markStale();
+        return savedCategory;
     }
 
     public Optional<ServiceCategory> findById(Long id) {
@@ -42,9 +53,14 @@ public class ServiceCategoryService {
         return serviceCategoryRepository.findByActiveTrue();
     }
 
-    @Transactional(readOnly = true)
+    // Served from the in-process catalog snapshot; cache hits never touch a connection
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ServiceCategory> findActiveCategoriesOrdered() {
-        return serviceCategoryRepository.findAllActiveCategoriesOrdered();
+        return categoryCatalogCache.getActiveCategoriesOrdered();
+    }
+
+    public Map<String, Object> getCatalogCacheStats() {
+        return categoryCatalogCache.getStats();
     }
 
     public ServiceCategory updateCategory(ServiceCategory category) {
@@ -56,7 +72,10 @@ public class ServiceCategoryService {
         existingCategory.setIcon(category.getIcon());
         existingCategory.setActive(category.isActive());
 
-        return serviceCategoryRepository.save(existingCategory);
+        ServiceCategory savedCategory = serviceCategoryRepository.save(existingCategory);
+        categoryCatalogCache.invalidate();
+        homePageService.markStale();
+        return savedCategory;
     }
 
     public void deleteCategory(Long id) {
@@ -66,6 +85,8 @@ public class ServiceCategoryService {
         // Soft delete - mark as inactive instead of deleting
         category.setActive(false);
         serviceCategoryRepository.save(category);
+        categoryCatalogCache.invalidate();
+        homePageService.markStale();
     }
 
     public boolean existsByName(String name) {
@@ -0,0 +1,14 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.ServiceActionLog;
+
+import java.util.List;
+
+// Where ServiceLogWriter flushes the audit trail. Each call gets one batch and
+// should write it in bulk.
+public interface ServiceLogStore {
+
+    String getName();
+
+    void writeAll(List<ServiceActionLog> entries);
+}
@@ -0,0 +1,183 @@
+package org.example.apcproject3.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.apcproject3.entity.ServiceActionLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Buffers service action audit entries and writes them to the ServiceLogStore
+// in bulk on one background thread. Callers only pay for an enqueue into a
+// bounded array-backed buffer; when it is full the entry is dropped (and
+// counted) unless service-log.offer-timeout-ms allows a short wait. A batch is
+// written once flush-size entries are buffered or flush-interval-ms after its
+// first entry, whichever comes first. Shutdown drains the buffer.
+@Component
+public class ServiceLogWriter {
+
+    // Wakes the writer thread on shutdown; never written
+    private static final ServiceActionLog SHUTDOWN = new ServiceActionLog();
+
+    @Autowired
+    private ServiceLogStore serviceLogStore;
+
+    @Value("${service-log.buffer-size:4096}")
+    private int bufferSize = 4096;
+
+    @Value("${service-log.flush-size:200}")
+    private int flushSize = 200;
+
+    @Value("${service-log.flush-interval-ms:1000}")
+    private long flushIntervalMs = 1000;
+
+    @Value("${service-log.offer-timeout-ms:0}")
+    private long offerTimeoutMs = 0;
+
+    @Value("${service-log.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs = 10000;
+
+    private BlockingQueue<ServiceActionLog> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedEntries = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        running = true;
+        writerThread = new Thread(this::runWriter, "service-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        buffer.offer(SHUTDOWN);
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            System.err.println("Service log writer did not finish within " + shutdownTimeoutMs + " ms, "
+                    + buffer.size() + " entries not written");
+        }
+    }
+
+    // Never blocks longer than service-log.offer-timeout-ms; false when the entry was dropped
+    public boolean log(ServiceActionLog entry) {
+        boolean accepted;
+        if (!running) {
+            accepted = false;
+        } else if (offerTimeoutMs <= 0) {
+            accepted = buffer.offer(entry);
+        } else {
+            try {
+                accepted = buffer.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        }
+
+        if (accepted) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+        }
+        return accepted;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("store", serviceLogStore.getName());
+        stats.put("buffered", buffer.size());
+        stats.put("capacity", bufferSize);
+        stats.put("enqueued", enqueued.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("written", written.sum());
+        stats.put("batches", batches.sum());
+        stats.put("failedEntries", failedEntries.sum());
+        return stats;
+    }
+
+    private void runWriter() {
+        List<ServiceActionLog> batch = new ArrayList<>(flushSize);
+        long flushDeadline = 0;
+
+        while (true) {
+            long waitNanos = batch.isEmpty()
+                    ? TimeUnit.MILLISECONDS.toNanos(flushIntervalMs)
+                    : flushDeadline - System.nanoTime();
+
+            ServiceActionLog entry = null;
+            if (running && waitNanos > 0) {
+                try {
+                    entry = buffer.poll(waitNanos, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    running = false;
+                }
+            } else {
+                entry = buffer.poll();
+            }
+
+            if (entry != null && entry != SHUTDOWN) {
+                if (batch.isEmpty()) {
+                    flushDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                }
+                batch.add(entry);
+            }
+            drainInto(batch);
+
+            boolean due = batch.size() >= flushSize || System.nanoTime() >= flushDeadline;
+            if (!batch.isEmpty() && (due || !running)) {
+                flush(batch);
+                batch = new ArrayList<>(flushSize);
+            }
+
+            if (!running && batch.isEmpty() && buffer.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private void drainInto(List<ServiceActionLog> batch) {
+        while (batch.size() < flushSize) {
+            ServiceActionLog next = buffer.poll();
+            if (next == null) {
+                return;
+            }
+            if (next != SHUTDOWN) {
+                batch.add(next);
+            }
+        }
+    }
+
+    private void flush(List<ServiceActionLog> batch) {
+        try {
+            serviceLogStore.writeAll(batch);
+            written.add(batch.size());
+            batches.increment();
+        } catch (Exception e) {
+            // The audit trail is best effort; a failed batch is counted, not retried
+            failedEntries.add(batch.size());
+            System.err.println("Failed to write " + batch.size() + " service log entries: " + e.getMessage());
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package org.example.apcproject3.service;
 
+import org.example.apcproject3.dto.ProviderCard;
+import org.example.apcproject3.dto.ProviderSearchCriteria;
+import org.example.apcproject3.dto.ProviderSearchPage;
+import org.example.apcproject3.dto.ProviderSort;
 import org.example.apcproject3.entity.ServiceCategory;
 import org.example.apcproject3.entity.ServiceProvider;
 import org.example.apcproject3.entity.User;
 import org.example.apcproject3.entity.UserRole;
 import org.example.apcproject3.repository.ServiceProviderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,6 +19,7 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 @Transactional
@@ -24,6 +31,16 @@ public class ServiceProviderService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AvailabilitySearchService availabilitySearchService;
+
+    @Autowired
+    private HomePageService homePageService;
+
+    @Autowired
+    @Qualifier("dbTaskExecutor")
+    private Executor dbTaskExecutor;
+
     public ServiceProvider createProvider(ServiceProvider provider) {
         // Validate that the user has SERVICE_PROVIDER role
         if (provider.getUser().getRole() != UserRole.SERVICE_PROVIDER) {
@@ -36,7 +53,10 @@ public class ServiceProviderService {
             throw new RuntimeException("Service provider profile already exists for this user");
         }
 
-        return serviceProviderRepository.save(provider);
+        ServiceProvider savedProvider = serviceProviderRepository.save(provider);
+        availabilitySearchService.invalidateAll();
+        homePageService.markStale();
+        return savedProvider;
     }
 
     public Optional<ServiceProvider> findById(Long id) {
@@ -53,8 +73,8 @@ public class ServiceProviderService {
     }
 
     @Transactional(readOnly = true)
-    public List<ServiceProvider> findAvailableProviders() {
-        return serviceProviderRepository.findByAvailableTrue();
+    public List<ProviderCard> findAvailableProviders() {
+        return serviceProviderRepository.findAvailableProviderCards();
     }
 
     @Transactional(readOnly = true)
@@ -68,13 +88,19 @@ public class ServiceProviderService {
     }
 
     @Transactional(readOnly = true)
-    public List<ServiceProvider> findTopRatedProviders(BigDecimal minRating) {
-        return serviceProviderRepository.findByRatingGreaterThanEqualOrderByRatingDesc(minRating);
+    public List<ProviderCard> findAvailableProviderCardsByCategory(Long categoryId) {
+        return serviceProviderRepository.findAvailableProviderCardsByCategoryId(categoryId);
     }
 
+    // The best rated providers, at most limit of them
     @Transactional(readOnly = true)
-    public List<ServiceProvider> findProvidersByPriceRange(BigDecimal minRate, BigDecimal maxRate) {
-        return serviceProviderRepository.findByHourlyRateBetween(minRate, maxRate);
+    public List<ProviderCard> findTopRatedProviders(BigDecimal minRating, int limit) {
+        return serviceProviderRepository.findTopRatedProviderCards(minRating, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProviderCard> findProvidersByPriceRange(BigDecimal minRate, BigDecimal maxRate) {
+        return serviceProviderRepository.findProviderCardsByHourlyRateBetween(minRate, maxRate);
     }
 
     @Transactional(readOnly = true)
@@ -82,6 +108,33 @@ public class ServiceProviderService {
         return serviceProviderRepository.findTopRatedProvidersByCategory(categoryId);
     }
 
+    // One page of the composite provider search. The cursor encodes the sort
+    // value and id of the last provider returned, so each page is a bounded
+    // index seek rather than an offset scan.
+    @Transactional(readOnly = true)
+    public ProviderSearchPage searchProviders(ProviderSearchCriteria criteria, String cursor, int limit) {
+        BigDecimal afterValue = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            // An empty value is a page that ended on providers without a sort value
+            afterValue = after.value(value -> value.isEmpty() ? null : new BigDecimal(value));
+            afterId = after.id();
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<ProviderCard> providers = serviceProviderRepository.search(criteria, afterValue, afterId, limit + 1);
+        if (providers.size() <= limit) {
+            return new ProviderSearchPage(providers, null);
+        }
+
+        providers = providers.subList(0, limit);
+        ProviderCard last = providers.get(limit - 1);
+        BigDecimal lastValue = criteria.getSort() == ProviderSort.RATING ? last.getRating() : last.getHourlyRate();
+        return new ProviderSearchPage(providers,
+                KeysetCursor.encode(lastValue != null ? lastValue.toPlainString() : "", last.getId()));
+    }
+
     public ServiceProvider updateProvider(ServiceProvider provider) {
         ServiceProvider existingProvider = serviceProviderRepository.findById(provider.getId())
                 .orElseThrow(() -> new RuntimeException("Service provider not found"));
@@ -92,24 +145,10 @@ public class ServiceProviderService {
         existingProvider.setAvailable(provider.isAvailable());
         existingProvider.setCategory(provider.getCategory());
 
-        return serviceProviderRepository.save(existingProvider);
-    }
-
-    public ServiceProvider updateRating(Long providerId, BigDecimal newRating, Integer reviewCount) {
-        ServiceProvider provider = serviceProviderRepository.findById(providerId)
-                .orElseThrow(() -> new RuntimeException("Service provider not found"));
-
-        // Calculate new average rating
-        BigDecimal totalRating = provider.getRating().multiply(BigDecimal.valueOf(provider.getTotalReviews()));
-        totalRating = totalRating.add(newRating);
-        int newTotalReviews = provider.getTotalReviews() + 1;
-
-        BigDecimal averageRating = totalRating.divide(BigDecimal.valueOf(newTotalReviews), 2, BigDecimal.ROUND_HALF_UP);
-
-        provider.setRating(averageRating);
-        provider.setTotalReviews(newTotalReviews);
-
-        return serviceProviderRepository.save(provider);
+        ServiceProvider savedProvider = serviceProviderRepository.save(existingProvider);
+        availabilitySearchService.invalidateAll();
+        homePageService.markStale();
+        return savedProvider;
     }
 
     public ServiceProvider verifyProvider(Long providerId) {
@@ -117,15 +156,20 @@ public class ServiceProviderService {
                 .orElseThrow(() -> new RuntimeException("Service provider not found"));
 
         provider.setVerified(true);
-        return serviceProviderRepository.save(provider);
+        ServiceProvider savedProvider = serviceProviderRepository.save(provider);
+        availabilitySearchService.invalidateAll();
+        homePageService.markStale();
+        return savedProvider;
     }
 
     public void deleteProvider(Long id) {
         serviceProviderRepository.deleteById(id);
+        availabilitySearchService.invalidateAll();
+        homePageService.markStale();
     }
 
     @Transactional(readOnly = true)
     public CompletableFuture<List<ServiceProvider>> findProvidersAsync() {
-        return CompletableFuture.supplyAsync(() -> serviceProviderRepository.findAll());
+        return CompletableFuture.supplyAsync(() -> serviceProviderRepository.findAll(), dbTaskExecutor);
     }
 }
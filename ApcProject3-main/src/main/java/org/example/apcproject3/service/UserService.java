@@ -3,7 +3,10 @@ package org.example.apcproject3.service;
 import org.example.apcproject3.entity.User;
 import org.example.apcproject3.entity.UserRole;
 import org.example.apcproject3.repository.UserRepository;
+import org.example.apcproject3.security.AuthenticatedPrincipalCache;
+import org.example.apcproject3.security.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +15,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 @Transactional
@@ -23,6 +27,16 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    @Qualifier("dbTaskExecutor")
+    private Executor dbTaskExecutor;
+
     public User createUser(User user) {
         // Check if user already exists
         if (userRepository.existsByUsername(user.getUsername())) {
@@ -83,7 +97,9 @@ public class UserService {
 
     public User updateUser(User user) {
         user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        principalCache.evictUser(savedUser.getId());
+        return savedUser;
     }
 
     public User updateUserProfile(Long userId, User updatedUser) {
@@ -99,7 +115,9 @@ public class UserService {
             existingUser.setProfileImage(updatedUser.getProfileImage());
             existingUser.setUpdatedAt(LocalDateTime.now());
 
-            return userRepository.save(existingUser);
+            User savedUser = userRepository.save(existingUser);
+            principalCache.evictUser(userId);
+            return savedUser;
         }
         throw new RuntimeException("User not found with id: " + userId);
     }
@@ -115,6 +133,7 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setUpdatedAt(LocalDateTime.now());
                 userRepository.save(user);
+                principalCache.evictUser(userId);
                 return true;
             }
         }
@@ -127,7 +146,13 @@ public class UserService {
             User user = userOpt.get();
             user.setEnabled(!user.isEnabled());
             user.setUpdatedAt(LocalDateTime.now());
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            principalCache.evictUser(userId);
+            if (!savedUser.isEnabled()) {
+                // A disabled account loses every session it already has
+                tokenProvider.blacklistAllTokens(savedUser.getUsername());
+            }
+            return savedUser;
         }
         throw new RuntimeException("User not found with id: " + userId);
     }
@@ -138,7 +163,9 @@ public class UserService {
             User user = userOpt.get();
             user.setRole(newRole);
             user.setUpdatedAt(LocalDateTime.now());
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            principalCache.evictUser(userId);
+            return savedUser;
         }
         throw new RuntimeException("User not found with id: " + userId);
     }
@@ -146,6 +173,7 @@ public class UserService {
     public void deleteUser(Long userId) {
         if (userRepository.existsById(userId)) {
             userRepository.deleteById(userId);
+            principalCache.evictUser(userId);
         } else {
             throw new RuntimeException("User not found with id: " + userId);
         }
@@ -154,7 +182,7 @@ public class UserService {
     // Async method for user operations
     @Transactional(readOnly = true)
     public CompletableFuture<List<User>> findAllUsersAsync() {
-        return CompletableFuture.supplyAsync(() -> userRepository.findAll());
+        return CompletableFuture.supplyAsync(() -> userRepository.findAll(), dbTaskExecutor);
     }
 
     // Method to handle OAuth2 user registration/update
@@ -0,0 +1,34 @@
+package org.example.apcproject3.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionModeTest {
+
+    @Test
+    void virtualMode_FollowsRuntimeSupport() {
+        // When
+        ExecutionMode mode = new ExecutionMode("Virtual");
+
+        // Then virtual threads are used only where the runtime has them
+        assertEquals(VirtualThreads.isSupported(), mode.isVirtual());
+        assertEquals(mode.isVirtual() ? ExecutionMode.VIRTUAL : ExecutionMode.PLATFORM, mode.getName());
+    }
+
+    @Test
+    void platformMode_KeepsDefaultPoolThreads() {
+        ExecutionMode mode = new ExecutionMode("platform");
+
+        assertFalse(mode.isVirtual());
+        assertNull(mode.poolThreadFactory("db-async-"));
+    }
+
+    @Test
+    void unknownMode_ThrowsException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> new ExecutionMode("reactive"));
+
+        assertTrue(exception.getMessage().contains("reactive"));
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.apcproject3.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedTaskExecutorTest {
+
+    private InstrumentedTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new InstrumentedTaskExecutor("test", 1, 1, 1);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_PoolAndQueueFull_RunsOnCallerAndCountsIt() throws Exception {
+        // Given the only worker blocked and the queue holding one task
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = CompletableFuture.runAsync(() -> await(release), executor);
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> { }, executor);
+
+        // When a third task arrives
+        Thread caller = Thread.currentThread();
+        String ranOn = CompletableFuture.supplyAsync(() -> Thread.currentThread() == caller ? "caller" : "pool", executor)
+            .get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("caller", ranOn);
+        release.countDown();
+        CompletableFuture.allOf(blocker, queued).get(1, TimeUnit.SECONDS);
+
+        // A future completes inside the task, before the worker counts it
+        Map<String, Object> stats = awaitStats(current -> Long.valueOf(3L).equals(current.get("completed")));
+        assertEquals(3L, stats.get("submitted"));
+        assertEquals(3L, stats.get("completed"));
+        assertEquals(1L, stats.get("callerRuns"));
+        assertEquals(0, stats.get("queueDepth"));
+    }
+
+    private Map<String, Object> awaitStats(Predicate<Map<String, Object>> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Map<String, Object> stats = executor.getStats();
+        while (!condition.test(stats) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            stats = executor.getStats();
+        }
+        return stats;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
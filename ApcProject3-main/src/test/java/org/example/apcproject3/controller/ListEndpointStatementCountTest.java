@@ -0,0 +1,149 @@
+package org.example.apcproject3.controller;
+
+import org.example.apcproject3.entity.Booking;
+import org.example.apcproject3.entity.Review;
+import org.example.apcproject3.entity.ServiceCategory;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.example.apcproject3.entity.User;
+import org.example.apcproject3.entity.UserRole;
+import org.example.apcproject3.metrics.EndpointMetrics;
+import org.example.apcproject3.repository.BookingRepository;
+import org.example.apcproject3.repository.ReviewRepository;
+import org.example.apcproject3.repository.ServiceCategoryRepository;
+import org.example.apcproject3.repository.ServiceProviderRepository;
+import org.example.apcproject3.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Counts the SQL statements of whole list requests, from the security filters
+// through Jackson writing the response, using the same per-request counter
+// that enforces the SQL budget. Each row has its own provider, user and
+// category pairing, so an association left out of a fetch plan costs one
+// statement per row and the count grows with the page.
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ListEndpointStatementCountTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EndpointMetrics endpointMetrics;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceCategoryRepository serviceCategoryRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private User customer;
+
+    // The context, and so the database, is shared by the tests of this class; seed it once
+    @BeforeEach
+    void setUp() {
+        customer = userRepository.findByUsername("stmt-customer").orElse(null);
+        if (customer != null) {
+            return;
+        }
+
+        customer = saveUser("stmt-customer", UserRole.CUSTOMER);
+        LocalDateTime start = LocalDateTime.now().plusDays(30).withNano(0);
+        for (int i = 0; i < ROWS; i++) {
+            ServiceCategory category = serviceCategoryRepository.save(new ServiceCategory("Stmt category " + i, "Category " + i));
+            ServiceProvider provider = new ServiceProvider(saveUser("stmt-provider" + i, UserRole.SERVICE_PROVIDER),
+                category, "Bio", BigDecimal.ONE, new BigDecimal("40.00"));
+            provider.setRating(new BigDecimal("4.90"));
+            provider = serviceProviderRepository.save(provider);
+
+            Booking booking = bookingRepository.save(new Booking(customer, provider, start.plusHours(i),
+                start.plusHours(i + 1), "Job " + i, new BigDecimal("40.00")));
+            reviewRepository.save(new Review(5, "Great", booking, customer, provider));
+        }
+    }
+
+    @Test
+    void availableProviders_WholeRequest_UsesOneStatement() throws Exception {
+        assertStatements(1, "GET /api/providers", get("/api/providers").with(user(customer)));
+    }
+
+    @Test
+    void topRatedProviders_WholeRequest_UsesOneStatement() throws Exception {
+        assertStatements(1, "GET /api/providers/top-rated",
+            get("/api/providers/top-rated").param("minRating", "4.9").param("size", "100").with(user(customer)));
+    }
+
+    @Test
+    void highRatedReviews_WholeRequest_UsesOneStatement() throws Exception {
+        assertStatements(1, "GET /api/reviews/high-rated",
+            get("/api/reviews/high-rated").param("minRating", "5").with(user(customer)));
+    }
+
+    @Test
+    void myReviews_WholeRequest_UsesOneStatement() throws Exception {
+        assertStatements(1, "GET /api/reviews/my", get("/api/reviews/my").with(user(customer)));
+    }
+
+    @Test
+    void myBookings_WholeRequest_UsesOneStatement() throws Exception {
+        mockMvc.perform(get("/api/bookings/my").param("size", "100").with(user(customer)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.bookings.length()").value(ROWS));
+
+        assertEquals(1L, maxStatements("GET /api/bookings/my"), "SQL statements per request");
+    }
+
+    // Every seeded row (and possibly rows seeded by the application) comes back
+    // from a single statement
+    private void assertStatements(long expected, String endpoint, RequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertFalse(body.contains("hibernateLazyInitializer"), "Serialized an uninitialized proxy");
+        assertTrue(body.split("\"id\"").length > ROWS, "Expected at least " + ROWS + " rows");
+        assertEquals(expected, maxStatements(endpoint), "SQL statements per request");
+    }
+
+    private long maxStatements(String endpoint) {
+        for (Map<String, Object> row : endpointMetrics.getSnapshot()) {
+            if (endpoint.equals(row.get("endpoint"))) {
+                return ((Number) row.get("maxSqlPerRequest")).longValue();
+            }
+        }
+        throw new AssertionError("No request recorded for " + endpoint);
+    }
+
+    private User saveUser(String username, UserRole role) {
+        User user = new User(username, username + "@example.com", "password", "First", "Last");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.apcproject3.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointMetricsTest {
+
+    @Test
+    void record_ClientAndServerErrors_AreCountedSeparately() {
+        // Given
+        EndpointMetrics metrics = new EndpointMetrics();
+
+        // When
+        metrics.record("POST /api/bookings", 1_000_000, 201, 3, 500_000);
+        metrics.record("POST /api/bookings", 1_000_000, 400, 1, 100_000);
+        metrics.record("POST /api/bookings", 1_000_000, 404, 1, 100_000);
+        metrics.record("POST /api/bookings", 1_000_000, 503, 2, 200_000);
+
+        // Then
+        Map<String, Object> row = metrics.getSnapshot().get(0);
+        assertEquals(4L, row.get("count"));
+        assertEquals(2L, row.get("clientErrors"));
+        assertEquals(1L, row.get("serverErrors"));
+        assertFalse(row.containsKey("errors"));
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.apcproject3.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketBounds_RoundTripWithinOneEighth() {
+        for (long micros : new long[] {0, 7, 8, 15, 16, 17, 1000, 123456, 1L << 39}) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            long lower = LatencyHistogram.lowerBoundOf(bucket);
+            long next = LatencyHistogram.lowerBoundOf(bucket + 1);
+
+            assertTrue(lower <= micros && micros < next, "value " + micros + " outside its bucket");
+            assertTrue(next - lower <= Math.max(1, lower / 8), "bucket of " + micros + " too wide");
+        }
+    }
+
+    @Test
+    void percentiles_UniformLatencies_AreWithinBucketPrecision() {
+        // Given 1..1000 ms
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 1000; ms++) {
+            histogram.recordNanos(ms * 1_000_000L);
+        }
+
+        // Then
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMeanMs(), 0.001);
+        assertEquals(1000.0, histogram.getMaxMs(), 0.001);
+        assertEquals(500, histogram.getPercentileMs(50), 500 * 0.125);
+        assertEquals(990, histogram.getPercentileMs(99), 990 * 0.125);
+    }
+
+    @Test
+    void percentiles_Empty_ReturnZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getPercentileMs(99));
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.apcproject3.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest
+class SqlRecordingDataSourceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private SlowQueryLog slowQueryLog;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        slowQueryLog = new SlowQueryLog(2);
+        jdbcTemplate = new JdbcTemplate(new SqlRecordingDataSource(dataSource, slowQueryLog));
+    }
+
+    @Test
+    void end_CountsStatementsRunSinceBegin() {
+        // Given
+        SqlStatementCounter.begin("GET /test");
+
+        // When
+        jdbcTemplate.queryForObject("select 1", Integer.class);
+        jdbcTemplate.queryForObject("select ? + 1", Integer.class, 1);
+        SqlStatementCounter counter = SqlStatementCounter.end();
+
+        // Then
+        assertEquals(2, counter.getStatements());
+        assertTrue(counter.getNanos() > 0);
+    }
+
+    @Test
+    void end_WithoutBegin_ReturnsNull() {
+        jdbcTemplate.queryForObject("select 1", Integer.class);
+
+        assertNull(SqlStatementCounter.end());
+    }
+
+    @Test
+    void record_SlowStatements_KeepsOnlyTheMostRecentInRingBuffer() {
+        // Given every statement counts as slow
+        ReflectionTestUtils.setField(slowQueryLog, "slowQueryMs", 0L);
+        SqlStatementCounter.begin("GET /test");
+
+        // When
+        jdbcTemplate.queryForObject("select 1", Integer.class);
+        jdbcTemplate.queryForObject("select 2", Integer.class);
+        jdbcTemplate.queryForObject("select 3", Integer.class);
+        SqlStatementCounter.end();
+
+        // Then
+        assertEquals(2, slowQueryLog.getRecentSlowQueries().size());
+        assertEquals("select 3", slowQueryLog.getRecentSlowQueries().get(0).getSql());
+        assertTrue(slowQueryLog.getRecentSlowQueries().stream().noneMatch(query -> query.getSql().equals("select 1")));
+        assertEquals("GET /test", slowQueryLog.getRecentSlowQueries().get(0).getSource());
+        assertEquals(2, slowQueryLog.getSlowQueries().size());
+        assertEquals(3L, slowQueryLog.getStats().get("slowQueries"));
+    }
+
+    @Test
+    void record_FloodOfSlowStatements_KeepsTheSlowestOnes() {
+        // Given
+        ReflectionTestUtils.setField(slowQueryLog, "slowQueryMs", 0L);
+        slowQueryLog.record("select slowest", 900_000_000L);
+        slowQueryLog.record("select slower", 600_000_000L);
+
+        // When many merely slow statements follow
+        for (int i = 0; i < 10; i++) {
+            slowQueryLog.record("select " + i, 150_000_000L);
+        }
+
+        // Then
+        List<SlowQueryLog.SlowQuery> slowest = slowQueryLog.getSlowQueries();
+        assertEquals("select slowest", slowest.get(0).getSql());
+        assertEquals("select slower", slowest.get(1).getSql());
+        assertEquals("select 9", slowQueryLog.getRecentSlowQueries().get(0).getSql());
+    }
+
+    @Test
+    void getConnection_ProxyEqualsItselfAndUnwrapsToDriverConnection() throws Exception {
+        try (Connection connection = new SqlRecordingDataSource(dataSource, slowQueryLog).getConnection()) {
+            assertEquals(connection, connection);
+            assertNotNull(connection.unwrap(Connection.class));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.example.apcproject3.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.example.apcproject3.dto.BookingSummary;
+import org.example.apcproject3.entity.Booking;
+import org.example.apcproject3.entity.BookingStatus;
+import org.example.apcproject3.entity.Review;
+import org.example.apcproject3.entity.ServiceCategory;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.example.apcproject3.entity.User;
+import org.example.apcproject3.entity.UserRole;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Counts the SQL statements behind each list endpoint's read path, including
+// whatever Jackson would lazily load while serializing the result. Any
+// association that falls out of a fetch plan shows up as extra statements.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FetchPlanStatementCountTest {
+
+    private static final int ROWS = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    private User customer;
+    private ServiceProvider firstProvider;
+
+    @BeforeEach
+    void setUp() {
+        customer = persistUser("customer", UserRole.CUSTOMER);
+        ServiceCategory plumbing = persist(new ServiceCategory("Plumbing", "Pipes"));
+        ServiceCategory cleaning = persist(new ServiceCategory("Cleaning", "Homes"));
+
+        // Every row gets its own provider, user and category pairing so a
+        // missed association costs one query per row
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < ROWS; i++) {
+            User providerUser = persistUser("provider" + i, UserRole.SERVICE_PROVIDER);
+            ServiceProvider provider = persist(new ServiceProvider(providerUser, i % 2 == 0 ? plumbing : cleaning,
+                "Bio", BigDecimal.ONE, new BigDecimal("40.00")));
+            provider.setRating(new BigDecimal("4.50"));
+            if (firstProvider == null) {
+                firstProvider = provider;
+            }
+
+            Booking booking = persist(new Booking(customer, provider, start.plusHours(i), start.plusHours(i + 1),
+                "Job " + i, new BigDecimal("40.00")));
+            persist(new Review(5, "Great", booking, customer, provider));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        customer = entityManager.find(User.class, customer.getId());
+        firstProvider = entityManager.find(ServiceProvider.class, firstProvider.getId());
+        entityManager.clear();
+    }
+
+    @Test
+    void bookingsByCustomer_SerializedPage_UsesOneStatement() {
+        assertStatements(1, ROWS, () -> bookingRepository.findByCustomer(customer));
+    }
+
+    @Test
+    void bookingsByCustomerAndStatus_SerializedPage_UsesOneStatement() {
+        assertStatements(1, ROWS, () -> bookingRepository.findByCustomerAndStatusIn(customer,
+            List.of(BookingStatus.PENDING)));
+    }
+
+    @Test
+    void bookingsByProvider_SerializedPage_UsesOneStatement() {
+        assertStatements(1, 1, () -> bookingRepository.findByProvider(firstProvider));
+    }
+
+    @Test
+    void customerHistoryPage_SerializedPage_UsesOneStatement() {
+        assertStatements(1, 20, () -> bookingRepository.findCustomerHistoryFirstPage(customer.getId(),
+            EnumSet.allOf(BookingStatus.class), PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void customerHistoryDeepPage_SerializedPage_UsesOneStatement() {
+        // Given the last row of the second-to-last page
+        List<BookingSummary> firstRows = bookingRepository.findCustomerHistoryFirstPage(customer.getId(),
+            EnumSet.allOf(BookingStatus.class), PageRequest.of(0, ROWS - 10));
+        BookingSummary last = firstRows.get(firstRows.size() - 1);
+
+        assertStatements(1, 10, () -> bookingRepository.findCustomerHistoryAfter(customer.getId(),
+            EnumSet.allOf(BookingStatus.class), last.getCreatedAt(), last.getId(), PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void availableProviderCards_SerializedPage_UsesOneStatement() {
+        assertStatements(1, ROWS, () -> serviceProviderRepository.findAvailableProviderCards());
+    }
+
+    @Test
+    void bookingExportStream_AllRows_UsesOneStatement() {
+        assertStatements(1, ROWS, () -> {
+            try (Stream<BookingSummary> rows = bookingRepository.streamAllSummaries()) {
+                return rows.toList();
+            }
+        });
+    }
+
+    @Test
+    void reviewsByCustomer_SerializedPage_UsesOneStatement() {
+        assertStatements(1, ROWS, () -> reviewRepository.findByCustomerOrderByCreatedAtDesc(customer));
+    }
+
+    @Test
+    void highRatedReviews_SerializedPage_UsesOneStatement() {
+        assertStatements(1, ROWS, () -> reviewRepository.findByRatingGreaterThanEqualOrderByCreatedAtDesc(4));
+    }
+
+    @Test
+    void availableProviders_SerializedPage_UsesOneStatement() {
+        assertStatements(1, ROWS, () -> serviceProviderRepository.findByAvailableTrue());
+    }
+
+    @Test
+    void topRatedProviders_SerializedPage_UsesOneStatement() {
+        assertStatements(1, ROWS, () -> serviceProviderRepository.findByRatingGreaterThanEqualOrderByRatingDesc(new BigDecimal("4.0")));
+    }
+
+    private void assertStatements(long expectedStatements, int expectedRows, Supplier<List<?>> read) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        List<?> rows = read.get();
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(rows);
+        } catch (Exception e) {
+            throw new AssertionError("Failed to serialize rows", e);
+        }
+
+        // Then
+        assertEquals(expectedRows, rows.size());
+        assertFalse(json.contains("hibernateLazyInitializer"), "Serialized an uninitialized proxy");
+        assertEquals(expectedStatements, statistics.getPrepareStatementCount(), "SQL statements issued");
+    }
+
+    private User persistUser(String username, UserRole role) {
+        User user = new User(username, username + "@example.com", "password", "First", "Last");
+        user.setRole(role);
+        return persist(user);
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.apcproject3.repository;
+
+import jakarta.persistence.EntityManager;
+import org.example.apcproject3.dto.ProviderCard;
+import org.example.apcproject3.dto.ProviderSearchCriteria;
+import org.example.apcproject3.dto.ProviderSort;
+import org.example.apcproject3.entity.ServiceCategory;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.example.apcproject3.entity.User;
+import org.example.apcproject3.entity.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ServiceProviderSearchRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    private final List<Long> unpriced = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ServiceCategory plumbing = new ServiceCategory("Plumbing", "Pipes");
+        entityManager.persist(plumbing);
+
+        // Two priced providers and three that never set a rate
+        String[] rates = {"40.00", null, "25.00", null, null};
+        for (int i = 0; i < rates.length; i++) {
+            User user = new User("provider" + i, "provider" + i + "@example.com", "password", "First", "Last");
+            user.setRole(UserRole.SERVICE_PROVIDER);
+            entityManager.persist(user);
+            ServiceProvider provider = new ServiceProvider(user, plumbing, "Bio", BigDecimal.ONE,
+                rates[i] != null ? new BigDecimal(rates[i]) : null);
+            entityManager.persist(provider);
+            if (rates[i] == null) {
+                unpriced.add(provider.getId());
+            }
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void search_ByPrice_PagesThroughProvidersWithoutRateLast() {
+        // Given
+        ProviderSearchCriteria criteria = new ProviderSearchCriteria();
+        criteria.setSort(ProviderSort.PRICE_ASC);
+
+        // When paging two at a time, resuming after the last row of each page
+        List<ProviderCard> seen = new ArrayList<>();
+        List<ProviderCard> page = serviceProviderRepository.search(criteria, null, null, 2);
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            ProviderCard last = page.get(page.size() - 1);
+            page = serviceProviderRepository.search(criteria, last.getHourlyRate(), last.getId(), 2);
+        }
+
+        // Then every provider shows up once, priced ones first
+        assertEquals(5, seen.size());
+        assertEquals(new BigDecimal("25.00"), seen.get(0).getHourlyRate());
+        assertEquals(new BigDecimal("40.00"), seen.get(1).getHourlyRate());
+        assertEquals(unpriced, seen.subList(2, 5).stream().map(ProviderCard::getId).toList());
+    }
+}
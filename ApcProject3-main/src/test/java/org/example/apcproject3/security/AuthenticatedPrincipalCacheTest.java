@@ -0,0 +1,74 @@
+package org.example.apcproject3.security;
+
+import org.example.apcproject3.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticatedPrincipalCacheTest {
+
+    private AuthenticatedPrincipalCache cache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AuthenticatedPrincipalCache();
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+    }
+
+    private long inOneHour() {
+        return System.currentTimeMillis() + 3600000;
+    }
+
+    @Test
+    void get_AfterPut_ReturnsCachedPrincipal() {
+        // Given
+        cache.put("token", user, inOneHour(), cache.currentGeneration());
+
+        // When & Then
+        assertSame(user, cache.get("token"));
+        assertNull(cache.get("other-token"));
+        assertEquals(1L, cache.getStats().get("hits"));
+    }
+
+    @Test
+    void put_TokenAlreadyExpired_IsNotCached() {
+        cache.put("token", user, System.currentTimeMillis() - 1, cache.currentGeneration());
+
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void evictUser_DropsEveryTokenOfThatUser() {
+        // Given two sessions of the same user and one of another
+        User other = new User();
+        other.setId(2L);
+        cache.put("token-a", user, inOneHour(), cache.currentGeneration());
+        cache.put("token-b", user, inOneHour(), cache.currentGeneration());
+        cache.put("token-c", other, inOneHour(), cache.currentGeneration());
+
+        // When
+        cache.evictUser(1L);
+
+        // Then
+        assertNull(cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+        assertSame(other, cache.get("token-c"));
+    }
+
+    @Test
+    void put_UserChangedWhileLoading_IsNotCached() {
+        // Given a lookup that started before the user was changed
+        long generation = cache.currentGeneration();
+        cache.evictUser(1L);
+
+        // When
+        cache.put("token", user, inOneHour(), generation);
+
+        // Then
+        assertNull(cache.get("token"));
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.apcproject3.security;
+
+import io.jsonwebtoken.Claims;
+import org.example.apcproject3.entity.User;
+import org.example.apcproject3.entity.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtTokenProviderTest {
+
+    @Mock
+    private AuthenticatedPrincipalCache principalCache;
+
+    @Spy
+    private TokenRevocationStore revocationStore = new TokenRevocationStore();
+
+    @InjectMocks
+    private JwtTokenProvider tokenProvider;
+
+    private User user;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        // Base64 of a 64-byte key, the minimum for HS512
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+            "YXBjcHJvamVjdDMtdGVzdC1zaWduaW5nLWtleS0wMTIzNDU2Nzg5LTAxMjM0NTY3ODktMDEyMzQ1Njc4OS14eXo=");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 60000);
+        tokenProvider.init();
+
+        user = new User();
+        user.setId(7L);
+        user.setUsername("testuser");
+        user.setRole(UserRole.CUSTOMER);
+        token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null));
+    }
+
+    @Test
+    void parseAndValidate_ValidToken_ReturnsClaimsWithUserIdAndRole() {
+        // When
+        Claims claims = tokenProvider.parseAndValidate(token);
+
+        // Then
+        assertNotNull(claims);
+        assertEquals("testuser", claims.getSubject());
+        assertEquals(7L, JwtTokenProvider.getUserId(claims));
+        assertEquals("CUSTOMER", claims.get(JwtTokenProvider.ROLE_CLAIM, String.class));
+    }
+
+    @Test
+    void parseAndValidate_TamperedSignature_ReturnsNull() {
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        assertNull(tokenProvider.parseAndValidate(tampered));
+    }
+
+    @Test
+    void parseAndValidate_BlacklistedToken_ReturnsNull() {
+        // When
+        tokenProvider.blacklistToken(token);
+
+        // Then
+        assertNull(tokenProvider.parseAndValidate(token));
+        verify(principalCache).evictToken(token);
+    }
+
+    // Revocation compares epoch ms, so make sure the clock has moved past the token's issue time
+    private void waitForNextMillisecond() {
+        long issuedAt = JwtTokenProvider.getIssuedAtMs(tokenProvider.getClaimsFromToken(token));
+        while (System.currentTimeMillis() <= issuedAt) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void parseAndValidate_AllTokensOfUserRevoked_ReturnsNull() {
+        // Given
+        waitForNextMillisecond();
+
+        // When
+        tokenProvider.blacklistAllTokens("testuser");
+
+        // Then
+        assertNull(tokenProvider.parseAndValidate(token));
+        verify(principalCache).evictUsername("testuser");
+    }
+
+    @Test
+    void parseAndValidate_TokenIssuedAfterRevokingAll_IsValid() {
+        // Given
+        tokenProvider.blacklistAllTokens("testuser");
+        long revokedAt = System.currentTimeMillis();
+        while (System.currentTimeMillis() <= revokedAt) {
+            Thread.onSpinWait();
+        }
+
+        // When logging in again right away
+        String fresh = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null));
+
+        // Then
+        assertNotNull(tokenProvider.parseAndValidate(fresh));
+    }
+
+    @Test
+    void blacklistToken_RevocationStoreFull_EvictsAllCachedTokensOfUser() {
+        // Given
+        ReflectionTestUtils.setField(revocationStore, "maxSize", 0);
+        waitForNextMillisecond();
+
+        // When
+        tokenProvider.blacklistToken(token);
+
+        // Then
+        assertNull(tokenProvider.parseAndValidate(token));
+        verify(principalCache).evictUsername("testuser");
+        verify(principalCache, never()).evictToken(token);
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.apcproject3.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationStoreTest {
+
+    private final TokenRevocationStore store = new TokenRevocationStore();
+
+    private long inOneHour() {
+        return System.currentTimeMillis() + 3600000;
+    }
+
+    @Test
+    void revokeToken_OnlyThatTokenIsRevoked() {
+        // When
+        store.revokeToken("token-a", "alice", inOneHour());
+
+        // Then
+        assertTrue(store.isTokenRevoked("token-a"));
+        assertFalse(store.isTokenRevoked("token-b"));
+        assertFalse(store.isUserRevoked("alice", System.currentTimeMillis() - 1000));
+    }
+
+    @Test
+    void revokeToken_StoreFull_RevokesAllTokensOfTheUserInstead() {
+        // Given
+        ReflectionTestUtils.setField(store, "maxSize", 1);
+        store.revokeToken("token-a", "alice", inOneHour());
+
+        // When
+        boolean revokedAll = store.revokeToken("token-b", "bob", inOneHour());
+
+        // Then
+        assertTrue(revokedAll);
+        assertEquals(1, store.getStats().get("revokedTokens"));
+        assertTrue(store.isUserRevoked("bob", System.currentTimeMillis() - 1000));
+        assertEquals(1L, store.getStats().get("overflows"));
+    }
+
+    @Test
+    void sweep_DropsRevocationsOfExpiredTokens() {
+        // Given
+        store.revokeToken("token-a", "alice", System.currentTimeMillis() + 50);
+        store.revokeToken("token-b", "alice", inOneHour());
+
+        // When
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        store.sweep();
+
+        // Then
+        assertEquals(1, store.getStats().get("revokedTokens"));
+        assertTrue(store.isTokenRevoked("token-b"));
+    }
+
+    @Test
+    void revokeUser_TokensIssuedLaterAreStillValid() {
+        long before = System.currentTimeMillis();
+        store.revokeUser("alice");
+        long after = System.currentTimeMillis();
+
+        assertTrue(store.isUserRevoked("alice", before - 1));
+        assertFalse(store.isUserRevoked("alice", after));
+        assertFalse(store.isUserRevoked("alice", after + 1));
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.dto.AvailabilityWindow;
+import org.example.apcproject3.repository.AvailabilitySlotRepository;
+import org.example.apcproject3.repository.BookingRepository;
+import org.example.apcproject3.repository.ProviderAvailabilityDayRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityCalendarServiceTest {
+
+    @Mock
+    private AvailabilitySlotRepository availabilitySlotRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ProviderAvailabilityDayRepository providerAvailabilityDayRepository;
+
+    @Mock
+    private AvailabilityRuleExpander availabilityRuleExpander;
+
+    @InjectMocks
+    private AvailabilityCalendarService availabilityCalendarService;
+
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        day = LocalDate.now().plusDays(2);
+    }
+
+    private void givenSlotWithBooking() {
+        // Slot 09:00-17:00 with a booking 12:00-13:30
+        List<Object[]> slots = new ArrayList<>();
+        slots.add(new Object[] {day.atTime(9, 0), day.atTime(17, 0)});
+        List<Object[]> bookings = new ArrayList<>();
+        bookings.add(new Object[] {day.atTime(12, 0), day.atTime(13, 30)});
+
+        when(providerAvailabilityDayRepository.findByProviderIdAndDayRange(eq(1L), any(), any())).thenReturn(List.of());
+        when(availabilitySlotRepository.findAvailableSlotWindowsOverlapping(eq(1L), any(), any())).thenReturn(slots);
+        when(bookingRepository.findActiveBookingWindowsOverlapping(eq(1L), any(), any())).thenReturn(bookings);
+    }
+
+    @Test
+    void isFree_InsideSlotAndAroundBooking() {
+        givenSlotWithBooking();
+
+        assertTrue(availabilityCalendarService.isFree(1L, day.atTime(9, 0), day.atTime(12, 0)));
+        assertTrue(availabilityCalendarService.isFree(1L, day.atTime(13, 30), day.atTime(17, 0)));
+
+        assertFalse(availabilityCalendarService.isFree(1L, day.atTime(11, 0), day.atTime(12, 15)));
+        assertFalse(availabilityCalendarService.isFree(1L, day.atTime(8, 45), day.atTime(10, 0)));
+        assertFalse(availabilityCalendarService.isFree(1L, day.atTime(16, 0), day.atTime(17, 10)));
+    }
+
+    @Test
+    void findFreeWindows_SplitsAroundBooking() {
+        givenSlotWithBooking();
+
+        List<AvailabilityWindow> windows = availabilityCalendarService.findFreeWindows(1L, day, 1);
+
+        assertEquals(2, windows.size());
+        assertEquals(day.atTime(9, 0), windows.get(0).getStartTime());
+        assertEquals(day.atTime(12, 0), windows.get(0).getEndTime());
+        assertEquals(day.atTime(13, 30), windows.get(1).getStartTime());
+        assertEquals(day.atTime(17, 0), windows.get(1).getEndTime());
+
+        // The computed day is served from memory afterwards
+        assertTrue(availabilityCalendarService.hasFreeTime(1L, day));
+        verify(availabilitySlotRepository, times(1)).findAvailableSlotWindowsOverlapping(eq(1L), any(), any());
+    }
+
+    @Test
+    void packAndUnpack_RoundTrip() {
+        long[] mask = new long[2];
+        AvailabilityCalendarService.setRange(mask, 3, 90, true);
+        AvailabilityCalendarService.setRange(mask, 40, 70, false);
+
+        long[] restored = AvailabilityCalendarService.unpack(AvailabilityCalendarService.pack(mask));
+
+        assertArrayEquals(mask, restored);
+        assertTrue(AvailabilityCalendarService.allSet(restored, 3, 40));
+        assertTrue(AvailabilityCalendarService.allSet(restored, 70, 90));
+        assertFalse(AvailabilityCalendarService.allSet(restored, 39, 41));
+        assertEquals(40, AvailabilityCalendarService.nextClearBit(restored, 3));
+        assertEquals(70, AvailabilityCalendarService.nextSetBit(restored, 40));
+    }
+
+    @Test
+    void refresh_PersistsPackedDay() {
+        givenSlotWithBooking();
+
+        availabilityCalendarService.refresh(1L, day.atTime(9, 0), day.atTime(17, 0));
+
+        verify(providerAvailabilityDayRepository).saveAll(argThat(rows -> {
+            int count = 0;
+            for (Object ignored : rows) {
+                count++;
+            }
+            return count == 1;
+        }));
+        assertTrue(availabilityCalendarService.isFree(1L, day.atTime(9, 0), day.atTime(10, 0)));
+    }
+
+    @Test
+    void refresh_InvalidatedWhileComputing_DoesNotPublishStaleMask() {
+        when(providerAvailabilityDayRepository.findByProviderIdAndDayRange(eq(1L), any(), any())).thenReturn(List.of());
+        when(bookingRepository.findActiveBookingWindowsOverlapping(eq(1L), any(), any())).thenReturn(List.of());
+        // An invalidation commits while refresh is still reading the slots
+        when(availabilitySlotRepository.findAvailableSlotWindowsOverlapping(eq(1L), any(), any())).thenAnswer(invocation -> {
+            ((AtomicLong) ReflectionTestUtils.getField(availabilityCalendarService, "generation")).incrementAndGet();
+            return List.of();
+        });
+
+        availabilityCalendarService.refresh(1L, day.atTime(9, 0), day.atTime(17, 0));
+
+        // Then the day is left for the next read to recompute
+        assertEquals(0, availabilityCalendarService.getCachedDays());
+        availabilityCalendarService.hasFreeTime(1L, day);
+        verify(availabilitySlotRepository, times(2)).findAvailableSlotWindowsOverlapping(eq(1L), any(), any());
+    }
+
+    @Test
+    void markDirty_DropsCachedDayAndFlushRecomputesIt() {
+        givenSlotWithBooking();
+        assertTrue(availabilityCalendarService.isFree(1L, day.atTime(9, 0), day.atTime(10, 0)));
+
+        // When a booking marks the day dirty
+        availabilityCalendarService.markDirty(1L, day.atTime(9, 0), day.atTime(10, 0));
+
+        // Then only the packed row is dropped on the request path
+        verify(providerAvailabilityDayRepository).deleteByProviderIdAndDayRange(1L, day, day);
+        verify(providerAvailabilityDayRepository, never()).saveAll(any());
+
+        // And the background flush recomputes and persists it once
+        assertEquals(1, availabilityCalendarService.flushDirtyDays());
+        assertEquals(0, availabilityCalendarService.flushDirtyDays());
+        verify(providerAvailabilityDayRepository).saveAll(any());
+        verify(availabilitySlotRepository, times(2)).findAvailableSlotWindowsOverlapping(eq(1L), any(), any());
+    }
+
+    @Test
+    void cache_OverMaxDays_DropsLeastRecentlyUsedAndSkipsPastDays() {
+        // Given room for one provider-day
+        ReflectionTestUtils.setField(availabilityCalendarService, "cacheMaxDays", 1);
+        availabilityCalendarService.init();
+        LocalDate nextDay = day.plusDays(1);
+        when(providerAvailabilityDayRepository.findByProviderIdAndDayRange(eq(1L), any(), any())).thenReturn(List.of());
+        when(availabilitySlotRepository.findAvailableSlotWindowsOverlapping(eq(1L), any(), any())).thenReturn(List.of());
+        when(bookingRepository.findActiveBookingWindowsOverlapping(eq(1L), any(), any())).thenReturn(List.of());
+
+        // When
+        availabilityCalendarService.hasFreeTime(1L, day);
+        availabilityCalendarService.hasFreeTime(1L, nextDay);
+        availabilityCalendarService.hasFreeTime(1L, LocalDate.now().minusDays(3));
+
+        // Then only the most recent future day is kept
+        assertEquals(1, availabilityCalendarService.getCachedDays());
+        availabilityCalendarService.hasFreeTime(1L, nextDay);
+        availabilityCalendarService.hasFreeTime(1L, day);
+        verify(availabilitySlotRepository, times(4)).findAvailableSlotWindowsOverlapping(eq(1L), any(), any());
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.dto.AvailabilityWindow;
+import org.example.apcproject3.entity.AvailabilityRule;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.example.apcproject3.repository.AvailabilityRuleExceptionRepository;
+import org.example.apcproject3.repository.AvailabilityRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityRuleExpanderTest {
+
+    @Mock
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Mock
+    private AvailabilityRuleExceptionRepository availabilityRuleExceptionRepository;
+
+    @InjectMocks
+    private AvailabilityRuleExpander availabilityRuleExpander;
+
+    private LocalDate monday;
+
+    private ServiceProvider provider;
+
+    private final List<AvailabilityRule> rules = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        provider = new ServiceProvider();
+        provider.setId(1L);
+        monday = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+        // Mon-Fri 09:00-17:00 until further notice
+        AvailabilityRule rule = new AvailabilityRule(provider,
+            EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(9, 0), LocalTime.of(17, 0), monday);
+        rule.setId(5L);
+        rules.add(rule);
+        when(availabilityRuleRepository.findActiveRulesForProviders(any(), any(), any())).thenReturn(rules);
+    }
+
+    @Test
+    void expand_WeekdayRule_SkipsWeekendAndExceptions() {
+        // Given Wednesday is a day off
+        List<Object[]> exceptions = new ArrayList<>();
+        exceptions.add(new Object[] {5L, monday.plusDays(2)});
+        when(availabilityRuleExceptionRepository.findExceptionDates(any(), any(), any())).thenReturn(exceptions);
+
+        // When
+        List<AvailabilityWindow> windows = availabilityRuleExpander.expand(1L, monday, monday.plusDays(6));
+
+        // Then
+        assertEquals(4, windows.size());
+        assertEquals(monday.atTime(9, 0), windows.get(0).getStartTime());
+        assertEquals(monday.atTime(17, 0), windows.get(0).getEndTime());
+        assertEquals(monday.plusDays(3).atTime(9, 0), windows.get(2).getStartTime());
+    }
+
+    @Test
+    void covers_WindowInsideOccurrence_ReturnsTrue() {
+        when(availabilityRuleExceptionRepository.findExceptionDates(any(), any(), any())).thenReturn(List.of());
+
+        assertTrue(availabilityRuleExpander.covers(1L, monday.atTime(10, 0), monday.atTime(11, 0)));
+        assertFalse(availabilityRuleExpander.covers(1L, monday.atTime(16, 0), monday.atTime(18, 0)));
+        assertFalse(availabilityRuleExpander.covers(1L, monday.plusDays(5).atTime(10, 0), monday.plusDays(5).atTime(11, 0)));
+    }
+
+    @Test
+    void covers_BookingAcrossMidnight_NeedsEveryDayItSpans() {
+        // Given evenings until midnight on Monday and early hours on Tuesday
+        AvailabilityRule evening = new AvailabilityRule(provider,
+            EnumSet.of(DayOfWeek.MONDAY), LocalTime.of(20, 0), LocalTime.MIDNIGHT, monday);
+        evening.setId(6L);
+        AvailabilityRule night = new AvailabilityRule(provider,
+            EnumSet.of(DayOfWeek.TUESDAY), LocalTime.MIDNIGHT, LocalTime.of(3, 0), monday);
+        night.setId(7L);
+        rules.clear();
+        rules.add(evening);
+        rules.add(night);
+        when(availabilityRuleExceptionRepository.findExceptionDates(any(), any(), any())).thenReturn(List.of());
+
+        // Then
+        assertTrue(availabilityRuleExpander.covers(1L, monday.atTime(22, 0), monday.plusDays(1).atTime(2, 0)));
+        assertFalse(availabilityRuleExpander.covers(1L, monday.atTime(22, 0), monday.plusDays(1).atTime(4, 0)));
+        assertFalse(availabilityRuleExpander.covers(1L, monday.plusDays(1).atTime(22, 0), monday.plusDays(2).atTime(1, 0)));
+        verify(availabilityRuleRepository, times(2)).findActiveRulesForProviders(any(), eq(monday), eq(monday.plusDays(1)));
+    }
+}
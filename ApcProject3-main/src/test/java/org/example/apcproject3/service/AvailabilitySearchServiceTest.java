@@ -0,0 +1,94 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.dto.ProviderAvailabilityMatch;
+import org.example.apcproject3.repository.ServiceProviderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilitySearchServiceTest {
+
+    @Mock
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Mock
+    private AvailabilityCalendarService availabilityCalendarService;
+
+    @InjectMocks
+    private AvailabilitySearchService availabilitySearchService;
+
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        day = LocalDate.now().plusDays(3);
+
+        List<Object[]> candidates = new ArrayList<>();
+        candidates.add(new Object[] {1L, "Ann", "Lee", new BigDecimal("4.50"), new BigDecimal("40.00"), true});
+        candidates.add(new Object[] {2L, "Bob", "Ray", new BigDecimal("4.90"), new BigDecimal("55.00"), false});
+        candidates.add(new Object[] {3L, "Cid", "Fox", new BigDecimal("5.00"), new BigDecimal("30.00"), true});
+        when(serviceProviderRepository.findSearchCandidatesByCategory(7L)).thenReturn(candidates);
+    }
+
+    private static long[] mask(int from, int to) {
+        long[] mask = new long[2];
+        AvailabilityCalendarService.setRange(mask, from, to, true);
+        return mask;
+    }
+
+    @Test
+    void search_RanksProvidersWithALongEnoughFreeRun() {
+        // Given 1: 09:00-12:00, 2: 10:00-11:00, 3: only 30 minutes free
+        when(availabilityCalendarService.findDayMasks(any(), eq(day))).thenReturn(Map.of(
+                1L, mask(36, 48),
+                2L, mask(40, 44),
+                3L, mask(40, 42)));
+
+        // When
+        List<ProviderAvailabilityMatch> matches =
+                availabilitySearchService.search(7L, day.atTime(8, 0), day.atTime(18, 0), 60, 10);
+
+        // Then
+        assertEquals(2, matches.size());
+        assertEquals(2L, matches.get(0).getProviderId());
+        assertEquals(day.atTime(10, 0), matches.get(0).getEarliestStart());
+        assertEquals(1L, matches.get(1).getProviderId());
+        assertEquals("Ann Lee", matches.get(1).getProviderName());
+        assertEquals(day.atTime(9, 0), matches.get(1).getEarliestStart());
+
+        // The bucket is reused by the next search
+        availabilitySearchService.search(7L, day.atTime(8, 0), day.atTime(18, 0), 30, 10);
+        verify(serviceProviderRepository, times(1)).findSearchCandidatesByCategory(7L);
+    }
+
+    @Test
+    void search_JoinsFreeRunsAcrossMidnight() {
+        // Given provider 1 is free 23:00-24:00 and 00:00-01:00 the next day
+        LocalDate nextDay = day.plusDays(1);
+        when(availabilityCalendarService.findDayMasks(any(), eq(day))).thenReturn(Map.of(1L, mask(92, 96)));
+        when(availabilityCalendarService.findDayMasks(any(), eq(nextDay))).thenReturn(Map.of(1L, mask(0, 4)));
+
+        // When
+        List<ProviderAvailabilityMatch> matches =
+                availabilitySearchService.search(7L, day.atTime(20, 0), nextDay.atTime(6, 0), 120, 10);
+
+        // Then
+        assertEquals(1, matches.size());
+        assertEquals(day.atTime(23, 0), matches.get(0).getEarliestStart());
+    }
+}
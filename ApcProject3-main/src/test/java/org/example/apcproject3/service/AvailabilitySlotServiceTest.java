@@ -0,0 +1,144 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.dto.AvailabilityWindow;
+import org.example.apcproject3.entity.AvailabilitySlot;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.example.apcproject3.repository.AvailabilitySlotRepository;
+import org.example.apcproject3.repository.ServiceProviderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilitySlotServiceTest {
+
+    @Mock
+    private AvailabilitySlotRepository availabilitySlotRepository;
+
+    @Mock
+    private AvailabilityCalendarService availabilityCalendarService;
+
+    @Mock
+    private AvailabilityRuleExpander availabilityRuleExpander;
+
+    @Mock
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @InjectMocks
+    private AvailabilitySlotService availabilitySlotService;
+
+    private ServiceProvider provider;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        provider = new ServiceProvider();
+        provider.setId(1L);
+        base = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    private AvailabilitySlot slot(int fromHour, int toHour) {
+        return new AvailabilitySlot(provider, base.plusHours(fromHour), base.plusHours(toHour));
+    }
+
+    @Test
+    void createMultipleSlots_UnsortedBatch_SavesOnceAndRefreshesCalendarOnce() {
+        // Given
+        List<AvailabilitySlot> slots = new ArrayList<>(List.of(slot(4, 5), slot(0, 1), slot(2, 3)));
+        when(availabilitySlotRepository.findSlotWindowsOverlapping(1L, base, base.plusHours(5))).thenReturn(List.of());
+        when(availabilitySlotRepository.saveAll(slots)).thenReturn(slots);
+
+        // When
+        List<AvailabilitySlot> result = availabilitySlotService.createMultipleSlots(slots);
+
+        // Then
+        assertEquals(3, result.size());
+        verify(availabilitySlotRepository).saveAll(slots);
+        verify(availabilityCalendarService).refresh(1L, base, base.plusHours(5));
+    }
+
+    @Test
+    void createMultipleSlots_OverlapWithinBatch_ThrowsException() {
+        // Given
+        List<AvailabilitySlot> slots = new ArrayList<>(List.of(slot(2, 4), slot(0, 3)));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> availabilitySlotService.createMultipleSlots(slots));
+        assertTrue(exception.getMessage().contains("overlap"));
+        verify(availabilitySlotRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createMultipleSlots_OverlapWithExistingSlot_ThrowsException() {
+        // Given an existing slot 03:30-04:30 after the batch start
+        List<AvailabilitySlot> slots = new ArrayList<>(List.of(slot(0, 1), slot(4, 6)));
+        List<Object[]> existing = new ArrayList<>();
+        existing.add(new Object[] {base.plusHours(1), base.plusHours(2)});
+        existing.add(new Object[] {base.plusHours(3).plusMinutes(30), base.plusHours(4).plusMinutes(30)});
+        when(availabilitySlotRepository.findSlotWindowsOverlapping(eq(1L), any(), any())).thenReturn(existing);
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> availabilitySlotService.createMultipleSlots(slots));
+        assertEquals("Time slot starting at " + base.plusHours(4) + " overlaps with existing availability", exception.getMessage());
+        verify(availabilitySlotRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void markSlotAvailabilityForWindow_InsideRuleOccurrence_MaterializesClaimedSlot() {
+        // Given no slot row, but a rule occurrence covering the window
+        when(availabilitySlotRepository.updateAvailabilityForWindow(1L, base, base.plusHours(1), false)).thenReturn(0);
+        when(availabilitySlotRepository.findSlotWindowsOverlapping(1L, base, base.plusHours(1))).thenReturn(List.of());
+        when(availabilityRuleExpander.covers(1L, base, base.plusHours(1))).thenReturn(true);
+        when(serviceProviderRepository.getReferenceById(1L)).thenReturn(provider);
+
+        // When
+        int updated = availabilitySlotService.markSlotAvailabilityForWindow(1L, base, base.plusHours(1), false);
+
+        // Then
+        assertEquals(1, updated);
+        verify(availabilitySlotRepository).save(argThat(slot -> !slot.isAvailable()
+            && slot.getStartTime().equals(base) && slot.getEndTime().equals(base.plusHours(1))));
+
+        // The calendar is only marked dirty on the booking path
+        verify(availabilityCalendarService).markDirty(1L, base, base.plusHours(1));
+        verify(availabilityCalendarService, never()).refresh(any(), any(), any());
+    }
+
+    @Test
+    void findAvailableSlotsByProviderOnDay_CutsClaimedWindowsOutOfRuleOccurrences() {
+        // Given a 09:00-17:00 occurrence with 12:00-13:00 already claimed
+        when(availabilityCalendarService.hasFreeTime(1L, base.toLocalDate())).thenReturn(true);
+        when(availabilitySlotRepository.findAvailableSlotsByProviderIdBetween(eq(1L), any(), any())).thenReturn(List.of());
+        when(availabilityRuleExpander.expand(1L, base.toLocalDate(), base.toLocalDate()))
+            .thenReturn(List.of(new AvailabilityWindow(base, base.plusHours(8))));
+        List<Object[]> taken = new ArrayList<>();
+        taken.add(new Object[] {base.plusHours(3), base.plusHours(4)});
+        when(availabilitySlotRepository.findSlotWindowsOverlapping(eq(1L), any(), any())).thenReturn(taken);
+
+        // When
+        List<AvailabilitySlot> slots = availabilitySlotService.findAvailableSlotsByProviderOnDay(1L, base.toLocalDate());
+
+        // Then
+        assertEquals(2, slots.size());
+        assertEquals(base, slots.get(0).getStartTime());
+        assertEquals(base.plusHours(3), slots.get(0).getEndTime());
+        assertEquals(base.plusHours(4), slots.get(1).getStartTime());
+        assertEquals(base.plusHours(8), slots.get(1).getEndTime());
+        assertNull(slots.get(0).getId());
+    }
+}
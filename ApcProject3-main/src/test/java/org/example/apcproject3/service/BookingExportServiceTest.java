@@ -0,0 +1,87 @@
+package org.example.apcproject3.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.apcproject3.dto.BookingExportFormat;
+import org.example.apcproject3.dto.BookingSummary;
+import org.example.apcproject3.entity.BookingStatus;
+import org.example.apcproject3.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExportServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private BookingExportService bookingExportService;
+
+    private BookingSummary summary(long id, String description) {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 9, 0);
+        return new BookingSummary(id, BookingStatus.CONFIRMED, start, start.plusHours(2), new BigDecimal("80.00"),
+            description, null, start.minusDays(1), 1L, "Ann", "Lee", 2L, "Bob", "Ray", "Plumbing");
+    }
+
+    private String export(BookingExportFormat format, BookingSummary... rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        when(bookingRepository.streamAllSummaries()).thenReturn(Stream.of(rows));
+
+        long written = bookingExportService.exportBookings(out, format);
+
+        assertEquals(rows.length, written);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void exportBookings_Ndjson_WritesOneObjectPerLine() throws Exception {
+        // When
+        String output = export(BookingExportFormat.NDJSON, summary(1L, "Fix sink"), summary(2L, "Fix tap"));
+
+        // Then
+        String[] lines = output.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals("Fix tap", objectMapper.readTree(lines[1]).get("description").asText());
+    }
+
+    @Test
+    void exportBookings_Json_WritesSingleArray() throws Exception {
+        // When
+        String output = export(BookingExportFormat.JSON, summary(1L, "Fix sink"), summary(2L, "Fix tap"));
+
+        // Then
+        assertEquals(2, objectMapper.readTree(output).size());
+    }
+
+    @Test
+    void exportBookings_Csv_QuotesFieldsWithSeparators() throws Exception {
+        // When
+        String output = export(BookingExportFormat.CSV, summary(1L, "Sink, \"urgent\""));
+
+        // Then
+        String[] lines = output.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,status,startTime"));
+        assertTrue(lines[1].startsWith("1,CONFIRMED,2024-05-01T09:00,2024-05-01T11:00,80.00,\"Sink, \"\"urgent\"\"\",,"));
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.Booking;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.example.apcproject3.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private ServiceProvider provider;
+    private LocalDateTime base;
+    private List<Object[]> rows;
+
+    @BeforeEach
+    void setUp() {
+        provider = new ServiceProvider();
+        provider.setId(1L);
+        base = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        rows = new ArrayList<>();
+        rows.add(new Object[] {10L, base, base.plusHours(2)});
+        when(bookingRepository.findActiveBookingIntervalsByProviderId(eq(1L), any())).thenReturn(rows);
+    }
+
+    @Test
+    void hasConflict_PartialOverlap_ReturnsTrue() {
+        assertTrue(bookingIntervalIndex.hasConflict(1L, base.minusHours(1), base.plusHours(1)));
+        assertTrue(bookingIntervalIndex.hasConflict(1L, base.plusHours(1), base.plusHours(3)));
+        assertTrue(bookingIntervalIndex.hasConflict(1L, base.minusHours(1), base.plusHours(3)));
+    }
+
+    @Test
+    void hasConflict_OverlappingExistingRows_FindsLongIntervalStartingEarlier() {
+        // Given a long booking that already overlaps a short one (legacy rows)
+        rows.add(new Object[] {12L, base.minusHours(1), base.plusHours(8)});
+        rows.add(new Object[] {13L, base.plusMinutes(30), base.plusHours(1)});
+
+        // Then the window after the short booking still conflicts with the long one
+        assertTrue(bookingIntervalIndex.hasConflict(1L, base.plusHours(3), base.plusHours(4)));
+        assertFalse(bookingIntervalIndex.reserve(1L, base.plusHours(3), base.plusHours(4)).isPresent());
+        assertFalse(bookingIntervalIndex.hasConflict(1L, base.plusHours(8), base.plusHours(9)));
+    }
+
+    @Test
+    void hasConflict_AdjacentWindows_ReturnsFalse() {
+        assertFalse(bookingIntervalIndex.hasConflict(1L, base.minusHours(1), base));
+        assertFalse(bookingIntervalIndex.hasConflict(1L, base.plusHours(2), base.plusHours(3)));
+
+        // Intervals are loaded only once per provider
+        verify(bookingRepository, times(1)).findActiveBookingIntervalsByProviderId(eq(1L), any());
+    }
+
+    @Test
+    void reserveAndRemove_UpdateIndex() {
+        Booking booking = new Booking();
+        booking.setId(11L);
+        booking.setProvider(provider);
+        booking.setStartTime(base.plusHours(4));
+        booking.setEndTime(base.plusHours(5));
+
+        Optional<BookingIntervalIndex.Reservation> reservation =
+            bookingIntervalIndex.reserve(1L, booking.getStartTime(), booking.getEndTime());
+        assertTrue(reservation.isPresent());
+        reservation.get().bind(booking);
+        assertTrue(bookingIntervalIndex.hasConflict(1L, base.plusHours(4).plusMinutes(30), base.plusHours(6)));
+
+        bookingIntervalIndex.remove(booking);
+        assertFalse(bookingIntervalIndex.hasConflict(1L, base.plusHours(4), base.plusHours(5)));
+    }
+
+    @Test
+    void reserve_SameWindowTwice_SecondIsRejectedUntilReleased() {
+        Optional<BookingIntervalIndex.Reservation> first =
+            bookingIntervalIndex.reserve(1L, base.plusHours(3), base.plusHours(4));
+        Optional<BookingIntervalIndex.Reservation> second =
+            bookingIntervalIndex.reserve(1L, base.plusHours(3).plusMinutes(30), base.plusHours(5));
+
+        assertTrue(first.isPresent());
+        assertFalse(second.isPresent());
+
+        first.get().release();
+        assertTrue(bookingIntervalIndex.reserve(1L, base.plusHours(3).plusMinutes(30), base.plusHours(5)).isPresent());
+    }
+
+    @Test
+    void evict_WithReservationInFlight_RebuildKeepsHoldAndLaterCommit() {
+        // Given a hold taken before the provider is evicted
+        Optional<BookingIntervalIndex.Reservation> held =
+            bookingIntervalIndex.reserve(1L, base.plusHours(3), base.plusHours(4));
+        assertTrue(held.isPresent());
+
+        // When
+        bookingIntervalIndex.evict(1L);
+
+        // Then the rebuilt index still rejects the held window
+        assertFalse(bookingIntervalIndex.reserve(1L, base.plusHours(3).plusMinutes(30), base.plusHours(5)).isPresent());
+        verify(bookingRepository, times(2)).findActiveBookingIntervalsByProviderId(eq(1L), any());
+
+        // And the committed hold lands in the live index
+        Booking booking = new Booking();
+        booking.setId(14L);
+        booking.setProvider(provider);
+        booking.setStartTime(base.plusHours(3));
+        booking.setEndTime(base.plusHours(4));
+        held.get().bind(booking);
+        assertTrue(bookingIntervalIndex.hasConflict(1L, base.plusHours(3), base.plusHours(4)));
+
+        bookingIntervalIndex.remove(booking);
+        assertFalse(bookingIntervalIndex.hasConflict(1L, base.plusHours(3), base.plusHours(4)));
+    }
+
+    @Test
+    void reserve_ConcurrentRequestsForSameWindow_OnlyOneSucceeds() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                if (bookingIntervalIndex.reserve(1L, base.plusHours(6), base.plusHours(7)).isPresent()) {
+                    admitted.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(1, admitted.get());
+    }
+
+    @Test
+    void hasConflict_WindowInThePast_FallsBackToDatabase() {
+        when(bookingRepository.countOverlappingBookings(eq(1L), any(), any())).thenReturn(1L);
+
+        assertTrue(bookingIntervalIndex.hasConflict(1L, base.minusDays(3), base.minusDays(3).plusHours(1)));
+        verify(bookingRepository).countOverlappingBookings(eq(1L), any(), any());
+    }
+}
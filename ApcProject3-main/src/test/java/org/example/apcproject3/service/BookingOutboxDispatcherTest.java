@@ -0,0 +1,159 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.BookingOutboxEvent;
+import org.example.apcproject3.entity.OutboxEventStatus;
+import org.example.apcproject3.repository.BookingOutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingOutboxDispatcherTest {
+
+    @Mock
+    private BookingOutboxEventRepository bookingOutboxEventRepository;
+
+    @Mock
+    private BookingEventSink analyticsSink;
+
+    @Mock
+    private BookingEventSink reportingSink;
+
+    @InjectMocks
+    private BookingOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "sinks", List.of(analyticsSink, reportingSink));
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+    }
+
+    private BookingOutboxEvent event(long id, int attempts) {
+        BookingOutboxEvent event = new BookingOutboxEvent();
+        event.setId(id);
+        event.setEventType("BOOKING_CREATED");
+        event.setStatus(OutboxEventStatus.PENDING);
+        event.setAttempts(attempts);
+        return event;
+    }
+
+    @Test
+    void dispatchPending_FullBatches_DeliversToEverySinkUntilDrained() {
+        // Given
+        List<BookingOutboxEvent> first = List.of(event(1L, 0), event(2L, 0));
+        List<BookingOutboxEvent> second = List.of(event(3L, 0));
+        when(bookingOutboxEventRepository.findDue(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(first, second);
+
+        // When
+        dispatcher.dispatchPending();
+
+        // Then
+        verify(analyticsSink).deliver(first);
+        verify(reportingSink).deliver(first);
+        verify(analyticsSink).deliver(second);
+        verify(bookingOutboxEventRepository).markDispatched(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(bookingOutboxEventRepository).markDispatched(eq(List.of(3L)), any(LocalDateTime.class));
+        verify(bookingOutboxEventRepository, times(2)).findDue(any(LocalDateTime.class), any(Pageable.class));
+    }
+
+    @Test
+    void requestDispatch_OnlySignalsDispatcherThread() {
+        // Given a dispatcher whose thread is not running
+        // When
+        dispatcher.requestDispatch();
+
+        // Then nothing is dispatched on the caller's thread
+        verifyNoInteractions(bookingOutboxEventRepository, analyticsSink, reportingSink);
+    }
+
+    @Test
+    void requestDispatch_DispatcherThreadRunning_DeliversWithoutWaitingForPoll() {
+        // Given
+        List<BookingOutboxEvent> batch = List.of(event(1L, 0));
+        when(bookingOutboxEventRepository.findDue(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(batch, List.of());
+        ReflectionTestUtils.setField(dispatcher, "pollMs", 60000L);
+        dispatcher.start();
+
+        try {
+            // When
+            dispatcher.requestDispatch();
+
+            // Then
+            verify(bookingOutboxEventRepository, timeout(5000)).markDispatched(eq(List.of(1L)), any(LocalDateTime.class));
+            verify(analyticsSink).deliver(batch);
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void dispatchPending_SinkFails_SchedulesRetryWithBackoff() {
+        // Given
+        BookingOutboxEvent event = event(1L, 0);
+        List<BookingOutboxEvent> batch = List.of(event);
+        when(bookingOutboxEventRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(batch);
+        doThrow(new RuntimeException("store unavailable")).when(reportingSink).deliver(batch);
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        dispatcher.dispatchPending();
+
+        // Then
+        assertEquals(1, event.getAttempts());
+        assertEquals(OutboxEventStatus.PENDING, event.getStatus());
+        assertEquals("store unavailable", event.getLastError());
+        assertTrue(event.getNextAttemptAt().isAfter(before));
+        verify(bookingOutboxEventRepository).saveAll(batch);
+        verify(bookingOutboxEventRepository, never()).markDispatched(any(), any());
+    }
+
+    @Test
+    void dispatchPending_LastAttemptFails_ParksEventAsFailed() {
+        // Given
+        BookingOutboxEvent event = event(1L, 2);
+        List<BookingOutboxEvent> batch = List.of(event);
+        when(bookingOutboxEventRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(batch);
+        doThrow(new RuntimeException("store unavailable")).when(analyticsSink).deliver(batch);
+
+        // When
+        dispatcher.dispatchPending();
+
+        // Then
+        assertEquals(3, event.getAttempts());
+        assertEquals(OutboxEventStatus.FAILED, event.getStatus());
+        verifyNoInteractions(reportingSink);
+    }
+
+    @Test
+    void dispatchPending_NoSinks_LeavesEventsPending() {
+        // Given
+        ReflectionTestUtils.setField(dispatcher, "sinks", List.of());
+        dispatcher.start();
+
+        // When
+        dispatcher.requestDispatch();
+        dispatcher.dispatchPending();
+        dispatcher.stop();
+
+        // Then nothing is read, marked dispatched or counted
+        verifyNoInteractions(bookingOutboxEventRepository);
+        assertEquals(0L, ((LongAdder) ReflectionTestUtils.getField(dispatcher, "dispatched")).sum());
+    }
+}
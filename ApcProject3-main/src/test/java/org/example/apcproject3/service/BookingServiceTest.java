@@ -1,5 +1,7 @@
 package org.example.apcproject3.service;
 
+import org.example.apcproject3.dto.BookingPage;
+import org.example.apcproject3.dto.BookingSummary;
 import org.example.apcproject3.entity.*;
 import org.example.apcproject3.repository.BookingRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,15 +10,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +37,12 @@ class BookingServiceTest {
     @Mock
     private ServiceProviderService serviceProviderService;
 
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingOutboxService bookingOutboxService;
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -68,11 +80,9 @@ class BookingServiceTest {
     @Test
     void createBooking_Success() {
         // Given
-        when(bookingRepository.findProviderBookingsInTimeRange(any(), any(), any()))
-            .thenReturn(Arrays.asList());
+        when(bookingIntervalIndex.reserve(any(), any(), any()))
+            .thenReturn(Optional.of(mock(BookingIntervalIndex.Reservation.class)));
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
-        when(availabilitySlotService.findAvailableSlotsByProviderAndDate(any(), any()))
-            .thenReturn(Arrays.asList());
 
         // When
         Booking result = bookingService.createBooking(testBooking);
@@ -82,14 +92,14 @@ class BookingServiceTest {
         assertEquals(BookingStatus.PENDING, result.getStatus());
         assertEquals(new BigDecimal("100.00"), result.getTotalAmount());
         verify(bookingRepository).save(testBooking);
+        verify(availabilitySlotService).markSlotAvailabilityForWindow(
+            provider.getId(), testBooking.getStartTime(), testBooking.getEndTime(), false);
     }
 
     @Test
     void createBooking_ConflictingBookings_ThrowsException() {
         // Given
-        List<Booking> conflictingBookings = Arrays.asList(testBooking);
-        when(bookingRepository.findProviderBookingsInTimeRange(any(), any(), any()))
-            .thenReturn(conflictingBookings);
+        when(bookingIntervalIndex.reserve(any(), any(), any())).thenReturn(Optional.empty());
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class,
@@ -100,6 +110,23 @@ class BookingServiceTest {
         verify(bookingRepository, never()).save(any());
     }
 
+    @Test
+    void updateBookingStatus_ReactivatedWindowTaken_ThrowsException() {
+        // Given
+        testBooking.setStatus(BookingStatus.CANCELLED);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(testBooking));
+        when(bookingIntervalIndex.reserve(provider.getId(), testBooking.getStartTime(), testBooking.getEndTime()))
+            .thenReturn(Optional.empty());
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> bookingService.updateBookingStatus(1L, BookingStatus.CONFIRMED, provider.getUser()));
+        assertEquals("Provider is no longer available during this booking's time slot", exception.getMessage());
+
+        assertEquals(BookingStatus.CANCELLED, testBooking.getStatus());
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void confirmBooking_Success() {
         // Given
@@ -134,7 +161,6 @@ class BookingServiceTest {
         // Given
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(testBooking));
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
-        when(availabilitySlotService.findByProvider(any())).thenReturn(Arrays.asList());
 
         // When
         Booking result = bookingService.cancelBooking(1L, "Customer request");
@@ -144,6 +170,9 @@ class BookingServiceTest {
         assertEquals(BookingStatus.CANCELLED, result.getStatus());
         assertTrue(result.getNotes().contains("Customer request"));
         verify(bookingRepository).save(testBooking);
+        verify(availabilitySlotService).markSlotAvailabilityForWindow(
+            provider.getId(), testBooking.getStartTime(), testBooking.getEndTime(), true);
+        verify(availabilitySlotService, never()).findByProvider(any());
     }
 
     @Test
@@ -161,4 +190,43 @@ class BookingServiceTest {
         assertEquals(testBooking.getId(), result.get(0).getId());
         verify(bookingRepository).findByCustomer(customer);
     }
+
+    private BookingSummary summary(long id, LocalDateTime createdAt) {
+        BookingSummary summary = new BookingSummary();
+        summary.setId(id);
+        summary.setCreatedAt(createdAt);
+        return summary;
+    }
+
+    @Test
+    void getBookingsByCustomer_MoreRowsThanPageSize_ReturnsCursorForNextPage() {
+        // Given
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123000000);
+        List<BookingSummary> rows = new ArrayList<>(List.of(summary(9L, now), summary(8L, now.minusHours(1)), summary(7L, now.minusHours(2))));
+        when(bookingRepository.findCustomerHistoryFirstPage(eq(1L), eq(EnumSet.allOf(BookingStatus.class)), eq(PageRequest.of(0, 3))))
+            .thenReturn(rows);
+
+        // When
+        BookingPage page = bookingService.getBookingsByCustomer(customer, null, null, 2);
+
+        // Then
+        assertEquals(2, page.getBookings().size());
+        assertNotNull(page.getNextCursor());
+
+        // The cursor resumes after the last returned row
+        when(bookingRepository.findCustomerHistoryAfter(1L, List.of(BookingStatus.COMPLETED), now.minusHours(1), 8L, PageRequest.of(0, 3)))
+            .thenReturn(List.of(summary(7L, now.minusHours(2))));
+        BookingPage nextPage = bookingService.getBookingsByCustomer(customer, new String[] {"completed"}, page.getNextCursor(), 2);
+        assertEquals(1, nextPage.getBookings().size());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    void getBookingsByCustomer_InvalidCursor_ThrowsException() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> bookingService.getBookingsByCustomer(customer, null, "bm90LWEtZGF0ZTox", 20));
+
+        assertEquals("Invalid cursor", exception.getMessage());
+        verifyNoInteractions(bookingRepository);
+    }
 }
@@ -0,0 +1,51 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.ServiceCategory;
+import org.example.apcproject3.repository.ServiceCategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryCatalogCacheTest {
+
+    @Mock
+    private ServiceCategoryRepository serviceCategoryRepository;
+
+    @InjectMocks
+    private CategoryCatalogCache categoryCatalogCache;
+
+    @Test
+    void getActiveCategoriesOrdered_LoadsOnceUntilInvalidated() {
+        // Given
+        ServiceCategory plumbing = new ServiceCategory("Plumbing", "Pipes and leaks");
+        plumbing.setId(1L);
+        when(serviceCategoryRepository.findAllActiveCategoriesOrdered()).thenReturn(List.of(plumbing));
+
+        // When
+        List<ServiceCategory> first = categoryCatalogCache.getActiveCategoriesOrdered();
+        List<ServiceCategory> second = categoryCatalogCache.getActiveCategoriesOrdered();
+        categoryCatalogCache.invalidate();
+        categoryCatalogCache.getActiveCategoriesOrdered();
+
+        // Then
+        assertSame(first, second);
+        assertEquals("Plumbing", first.get(0).getName());
+        assertTrue(first.get(0).getProviders().isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(plumbing));
+        verify(serviceCategoryRepository, times(2)).findAllActiveCategoriesOrdered();
+
+        Map<String, Object> stats = categoryCatalogCache.getStats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(2L, stats.get("misses"));
+        assertEquals(1L, stats.get("invalidations"));
+    }
+}
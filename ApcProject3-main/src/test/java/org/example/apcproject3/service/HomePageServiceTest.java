@@ -0,0 +1,89 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.dto.HomePageModel;
+import org.example.apcproject3.dto.ProviderCard;
+import org.example.apcproject3.entity.ServiceCategory;
+import org.example.apcproject3.repository.ServiceProviderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HomePageServiceTest {
+
+    @Mock
+    private CategoryCatalogCache categoryCatalogCache;
+
+    @Mock
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @InjectMocks
+    private HomePageService homePageService;
+
+    private ProviderCard card(long id) {
+        return new ProviderCard(id, "Jane", "Doe", 1L, "Plumbing", "Bio",
+            new BigDecimal("4.50"), 10, new BigDecimal("40.00"), true);
+    }
+
+    @Test
+    void getHomePage_RepeatedRequests_BuildOnceAndServeFromMemory() {
+        // Given
+        when(categoryCatalogCache.getActiveCategoriesOrdered()).thenReturn(List.of(new ServiceCategory("Plumbing", "Pipes")));
+        when(serviceProviderRepository.findTopRatedProviderCards(eq(new BigDecimal("4.0")), any())).thenReturn(List.of(card(1L)));
+
+        // When
+        HomePageModel first = homePageService.getHomePage();
+        HomePageModel second = homePageService.getHomePage();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, first.getTopProviders().size());
+        verify(serviceProviderRepository, times(1)).findTopRatedProviderCards(any(), any());
+    }
+
+    @Test
+    void rebuild_NewSnapshot_HasNewVersionAndETag() {
+        // Given
+        when(categoryCatalogCache.getActiveCategoriesOrdered()).thenReturn(List.of());
+        when(serviceProviderRepository.findTopRatedProviderCards(any(), any()))
+            .thenReturn(List.of(card(1L)))
+            .thenReturn(List.of(card(2L), card(1L)));
+        HomePageModel before = homePageService.getHomePage();
+
+        // When
+        HomePageModel after = homePageService.rebuild();
+
+        // Then
+        assertTrue(after.getVersion() > before.getVersion());
+        assertNotEquals(before.getETag(), after.getETag());
+        assertSame(after, homePageService.getHomePage());
+        assertEquals(2L, after.getTopProviders().get(0).getId());
+    }
+
+    @Test
+    void getETag_SameContentAfterRestart_IsUnchanged() {
+        // Given a model built by a fresh instance and one rebuilt several times
+        List<ServiceCategory> categories = List.of(new ServiceCategory("Plumbing", "Pipes"));
+        HomePageModel fresh = new HomePageModel(1, categories, List.of(card(1L)));
+        HomePageModel rebuilt = new HomePageModel(7, categories, List.of(card(1L)));
+
+        // When
+        ProviderCard rerated = card(1L);
+        rerated.setRating(new BigDecimal("4.60"));
+        HomePageModel changed = new HomePageModel(8, categories, List.of(rerated));
+
+        // Then
+        assertEquals(fresh.getETag(), rebuilt.getETag());
+        assertNotEquals(fresh.getETag(), changed.getETag());
+    }
+}
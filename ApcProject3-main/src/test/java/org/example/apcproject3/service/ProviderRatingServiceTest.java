@@ -0,0 +1,204 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.ProviderRatingAggregate;
+import org.example.apcproject3.entity.ServiceProvider;
+import org.example.apcproject3.repository.ProviderRatingAggregateRepository;
+import org.example.apcproject3.repository.ReviewRepository;
+import org.example.apcproject3.repository.ServiceProviderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderRatingServiceTest {
+
+    @Mock
+    private ProviderRatingAggregateRepository providerRatingAggregateRepository;
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Mock
+    private HomePageService homePageService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ProviderRatingService providerRatingService;
+
+    private ServiceProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new ServiceProvider();
+        provider.setId(1L);
+    }
+
+    @Test
+    void addRating_ExistingAggregate_AppliesDeltaWithoutScanningReviews() {
+        // Given totals after the update: 3 reviews summing to 13
+        when(providerRatingAggregateRepository.applyDelta(eq(1L), eq(4L), eq(1L), eq(0L), eq(0L), eq(0L), eq(1L), eq(0L), any()))
+            .thenReturn(1);
+        List<Object[]> totals = new ArrayList<>();
+        totals.add(new Object[] {13L, 3L});
+        when(providerRatingAggregateRepository.findTotals(1L)).thenReturn(totals);
+
+        // When
+        providerRatingService.addRating(provider, 4);
+
+        // Then
+        assertEquals(new BigDecimal("4.33"), provider.getRating());
+        assertEquals(3, provider.getTotalReviews());
+        verify(serviceProviderRepository).save(provider);
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void addRating_FirstReview_BuildsAggregateFromReviews() {
+        // Given
+        when(providerRatingAggregateRepository.applyDelta(eq(1L), anyLong(), anyLong(), anyLong(), anyLong(),
+            anyLong(), anyLong(), anyLong(), any())).thenReturn(0);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, 1L, 5L, 0L, 0L, 0L, 0L, 1L});
+        when(reviewRepository.aggregateRatingsForProvider(1L)).thenReturn(rows);
+
+        // When
+        providerRatingService.addRating(provider, 5);
+
+        // Then the provider row is locked before the aggregate row is looked for
+        InOrder inOrder = inOrder(serviceProviderRepository, providerRatingAggregateRepository);
+        inOrder.verify(serviceProviderRepository).findByIdForUpdate(1L);
+        inOrder.verify(providerRatingAggregateRepository).applyDelta(eq(1L), anyLong(), anyLong(), anyLong(),
+            anyLong(), anyLong(), anyLong(), anyLong(), any());
+        verify(providerRatingAggregateRepository).save(argThat(aggregate ->
+            aggregate.getRatingCount() == 1 && aggregate.getRatingSum() == 5 && aggregate.getStars5() == 1));
+        assertEquals(new BigDecimal("5.00"), provider.getRating());
+    }
+
+    // Runs the callback the way the real template would, minus the transaction
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void reconcileAll_DriftedAggregate_IsRebuiltUnderProviderLock() {
+        // Given the aggregate says 2 reviews but the table has 1
+        List<Object[]> stored = new ArrayList<>();
+        stored.add(new Object[] {1L, 2L, 8L, 0L, 0L, 0L, 2L, 0L});
+        when(providerRatingAggregateRepository.findAllTotals()).thenReturn(stored);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, 1L, 4L, 0L, 0L, 0L, 1L, 0L});
+        when(reviewRepository.aggregateRatingsByProvider()).thenReturn(rows);
+        ProviderRatingAggregate aggregate = new ProviderRatingAggregate(1L);
+        aggregate.setRatingCount(2);
+        aggregate.setRatingSum(8);
+        aggregate.setStars4(2);
+        when(serviceProviderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(provider));
+        when(providerRatingAggregateRepository.findById(1L)).thenReturn(Optional.of(aggregate));
+        when(reviewRepository.aggregateRatingsForProvider(1L)).thenReturn(rows);
+        runTransactionsInline();
+
+        // When
+        int corrected = providerRatingService.reconcileAll();
+
+        // Then the totals are re-read after the lock is taken, in a transaction of its own
+        assertEquals(1, corrected);
+        verify(transactionTemplate).execute(any());
+        InOrder inOrder = inOrder(serviceProviderRepository, reviewRepository);
+        inOrder.verify(serviceProviderRepository).findByIdForUpdate(1L);
+        inOrder.verify(reviewRepository).aggregateRatingsForProvider(1L);
+        assertEquals(1, aggregate.getRatingCount());
+        assertEquals(1, aggregate.getStars4());
+        assertEquals(new BigDecimal("4.00"), provider.getRating());
+    }
+
+    @Test
+    void reconcileAll_MatchingTotals_TakesNoLocks() {
+        // Given
+        List<Object[]> stored = new ArrayList<>();
+        stored.add(new Object[] {1L, 1L, 4L, 0L, 0L, 0L, 1L, 0L});
+        when(providerRatingAggregateRepository.findAllTotals()).thenReturn(stored);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, 1L, 4L, 0L, 0L, 0L, 1L, 0L});
+        when(reviewRepository.aggregateRatingsByProvider()).thenReturn(rows);
+
+        // When
+        int corrected = providerRatingService.reconcileAll();
+
+        // Then
+        assertEquals(0, corrected);
+        verifyNoInteractions(serviceProviderRepository, transactionTemplate);
+    }
+
+    @Test
+    void reconcileAll_DriftGoneOnceLocked_LeavesAggregateAlone() {
+        // Given a review write that committed between the two unlocked reads
+        List<Object[]> stored = new ArrayList<>();
+        stored.add(new Object[] {1L, 2L, 9L, 0L, 0L, 0L, 1L, 1L});
+        when(providerRatingAggregateRepository.findAllTotals()).thenReturn(stored);
+        List<Object[]> before = new ArrayList<>();
+        before.add(new Object[] {1L, 1L, 4L, 0L, 0L, 0L, 1L, 0L});
+        when(reviewRepository.aggregateRatingsByProvider()).thenReturn(before);
+        ProviderRatingAggregate aggregate = new ProviderRatingAggregate(1L);
+        aggregate.setRatingCount(2);
+        aggregate.setRatingSum(9);
+        aggregate.setStars4(1);
+        aggregate.setStars5(1);
+        when(serviceProviderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(provider));
+        when(providerRatingAggregateRepository.findById(1L)).thenReturn(Optional.of(aggregate));
+        List<Object[]> locked = new ArrayList<>();
+        locked.add(new Object[] {1L, 2L, 9L, 0L, 0L, 0L, 1L, 1L});
+        when(reviewRepository.aggregateRatingsForProvider(1L)).thenReturn(locked);
+        runTransactionsInline();
+
+        // When
+        int corrected = providerRatingService.reconcileAll();
+
+        // Then
+        assertEquals(0, corrected);
+        verify(providerRatingAggregateRepository, never()).save(any());
+        verify(serviceProviderRepository, never()).save(any());
+    }
+
+    @Test
+    void reconcileAll_OneProviderFails_OthersAreStillReconciled() {
+        // Given two providers with reviews but no aggregate
+        when(providerRatingAggregateRepository.findAllTotals()).thenReturn(List.of());
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, 1L, 4L, 0L, 0L, 0L, 1L, 0L});
+        rows.add(new Object[] {2L, 1L, 5L, 0L, 0L, 0L, 0L, 1L});
+        when(reviewRepository.aggregateRatingsByProvider()).thenReturn(rows);
+        when(transactionTemplate.execute(any()))
+            .thenThrow(new RuntimeException("lock timeout"))
+            .thenReturn(true);
+
+        // When
+        int corrected = providerRatingService.reconcileAll();
+
+        // Then
+        assertEquals(1, corrected);
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.entity.ServiceActionLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceLogWriterTest {
+
+    @Mock
+    private ServiceLogStore serviceLogStore;
+
+    @InjectMocks
+    private ServiceLogWriter writer;
+
+    private boolean started;
+
+    private void start(int bufferSize, int flushSize, long flushIntervalMs) {
+        ReflectionTestUtils.setField(writer, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(writer, "flushSize", flushSize);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", flushIntervalMs);
+        writer.start();
+        started = true;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (started) {
+            writer.stop();
+        }
+    }
+
+    private ServiceActionLog entry(long bookingId) {
+        return new ServiceActionLog(bookingId, 1L, 2L, "BOOKING_CREATED", "Booking " + bookingId);
+    }
+
+    @Test
+    void log_FlushSizeReached_WritesOneBatch() throws Exception {
+        // Given a flush interval long enough that only the size can trigger a write
+        start(100, 3, 60000);
+
+        // When
+        writer.log(entry(1L));
+        writer.log(entry(2L));
+        writer.log(entry(3L));
+
+        // Then
+        ArgumentCaptor<List<ServiceActionLog>> batch = ArgumentCaptor.forClass(List.class);
+        // written is counted after writeAll returns, so wait on the stats rather than the call
+        assertEquals(3L, awaitStats(stats -> Long.valueOf(3L).equals(stats.get("written"))).get("written"));
+        verify(serviceLogStore).writeAll(batch.capture());
+        assertEquals(3, batch.getValue().size());
+        assertEquals(1L, writer.getStats().get("batches"));
+    }
+
+    @Test
+    void log_BufferFull_DropsAndCounts() throws Exception {
+        // Given a writer stuck writing its first entry, with room for one more
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> writtenIds = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<ServiceActionLog> entries = invocation.getArgument(0);
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            for (ServiceActionLog entry : entries) {
+                writtenIds.add(entry.getBookingId());
+            }
+            return null;
+        }).when(serviceLogStore).writeAll(anyList());
+        start(1, 1, 60000);
+        writer.log(entry(1L));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // When
+        boolean second = writer.log(entry(2L));
+        boolean third = writer.log(entry(3L));
+
+        // Then
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(1L, writer.getStats().get("dropped"));
+
+        release.countDown();
+        writer.stop();
+        started = false;
+        assertEquals(List.of(1L, 2L), writtenIds);
+    }
+
+    @Test
+    void stop_BufferedEntries_FlushesBeforeReturning() {
+        // Given entries below the flush size and interval
+        start(100, 50, 60000);
+        writer.log(entry(1L));
+        writer.log(entry(2L));
+
+        // When
+        writer.stop();
+        started = false;
+
+        // Then
+        assertEquals(2L, writer.getStats().get("written"));
+        assertFalse(writer.log(entry(3L)));
+    }
+
+    @Test
+    void log_StoreFails_CountsFailedEntriesAndKeepsRunning() throws Exception {
+        // Given
+        doThrow(new RuntimeException("database down")).doNothing().when(serviceLogStore).writeAll(anyList());
+        start(100, 1, 60000);
+
+        // When
+        writer.log(entry(1L));
+        writer.log(entry(2L));
+
+        // Then the writer is still running after the failure
+        Map<String, Object> stats = awaitStats(current -> Long.valueOf(1L).equals(current.get("written")));
+        assertEquals(1L, stats.get("failedEntries"));
+        assertEquals(1L, stats.get("written"));
+        verify(serviceLogStore, times(2)).writeAll(anyList());
+    }
+
+    private Map<String, Object> awaitStats(Predicate<Map<String, Object>> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Map<String, Object> stats = writer.getStats();
+        while (!condition.test(stats) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            stats = writer.getStats();
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.apcproject3.service;
+
+import org.example.apcproject3.dto.ProviderCard;
+import org.example.apcproject3.dto.ProviderSearchCriteria;
+import org.example.apcproject3.dto.ProviderSearchPage;
+import org.example.apcproject3.dto.ProviderSort;
+import org.example.apcproject3.repository.ServiceProviderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceProviderServiceTest {
+
+    @Mock
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private AvailabilitySearchService availabilitySearchService;
+
+    @InjectMocks
+    private ServiceProviderService serviceProviderService;
+
+    private ProviderCard provider(long id, String rating) {
+        ProviderCard provider = new ProviderCard();
+        provider.setId(id);
+        provider.setRating(new BigDecimal(rating));
+        return provider;
+    }
+
+    @Test
+    void searchProviders_MoreRowsThanPageSize_ReturnsCursorForNextPage() {
+        // Given
+        ProviderSearchCriteria criteria = new ProviderSearchCriteria();
+        List<ProviderCard> rows = new ArrayList<>(List.of(provider(3L, "4.90"), provider(1L, "4.50"), provider(2L, "4.50")));
+        when(serviceProviderRepository.search(eq(criteria), isNull(), isNull(), eq(3))).thenReturn(rows);
+
+        // When
+        ProviderSearchPage page = serviceProviderService.searchProviders(criteria, null, 2);
+
+        // Then
+        assertEquals(2, page.getProviders().size());
+        assertNotNull(page.getNextCursor());
+
+        // The cursor resumes after the last returned row
+        when(serviceProviderRepository.search(criteria, new BigDecimal("4.50"), 1L, 3)).thenReturn(List.of(provider(2L, "4.50")));
+        ProviderSearchPage nextPage = serviceProviderService.searchProviders(criteria, page.getNextCursor(), 2);
+        assertEquals(1, nextPage.getProviders().size());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    void searchProviders_PageEndsOnProviderWithoutRate_CursorResumesAmongThem() {
+        // Given
+        ProviderSearchCriteria criteria = new ProviderSearchCriteria();
+        criteria.setSort(ProviderSort.PRICE_ASC);
+        ProviderCard unpriced = provider(4L, "4.00");
+        List<ProviderCard> rows = new ArrayList<>(List.of(provider(3L, "4.90"), unpriced, provider(5L, "3.00")));
+        rows.get(0).setHourlyRate(new BigDecimal("30.00"));
+        when(serviceProviderRepository.search(eq(criteria), isNull(), isNull(), eq(3))).thenReturn(rows);
+        ProviderSearchPage page = serviceProviderService.searchProviders(criteria, null, 2);
+
+        // When
+        serviceProviderService.searchProviders(criteria, page.getNextCursor(), 2);
+
+        // Then
+        verify(serviceProviderRepository).search(eq(criteria), isNull(), eq(4L), eq(3));
+    }
+
+    @Test
+    void findTopRatedProviders_LimitsTheQueryToTheRequestedSize() {
+        // When
+        serviceProviderService.findTopRatedProviders(new BigDecimal("4.0"), 20);
+
+        // Then
+        verify(serviceProviderRepository).findTopRatedProviderCards(new BigDecimal("4.0"), PageRequest.of(0, 20));
+    }
+
+    @Test
+    void searchProviders_InvalidCursor_ThrowsException() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> serviceProviderService.searchProviders(new ProviderSearchCriteria(), "not-a-cursor", 10));
+
+        assertEquals("Invalid cursor", exception.getMessage());
+        verify(serviceProviderRepository, never()).search(any(), any(), any(), anyInt());
+    }
+}
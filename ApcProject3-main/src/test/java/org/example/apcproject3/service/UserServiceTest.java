@@ -3,6 +3,8 @@ package org.example.apcproject3.service;
 import org.example.apcproject3.entity.User;
 import org.example.apcproject3.entity.UserRole;
 import org.example.apcproject3.repository.UserRepository;
+import org.example.apcproject3.security.AuthenticatedPrincipalCache;
+import org.example.apcproject3.security.JwtTokenProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,6 +31,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private AuthenticatedPrincipalCache principalCache;
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
     @InjectMocks
     private UserService userService;
 
@@ -159,4 +167,20 @@ class UserServiceTest {
         verify(passwordEncoder).matches("wrongPassword", testUser.getPassword());
         verify(userRepository, never()).save(any());
     }
+
+    @Test
+    void toggleUserStatus_Disable_EvictsPrincipalsAndRevokesTokens() {
+        // Given
+        testUser.setEnabled(true);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+
+        // When
+        User result = userService.toggleUserStatus(1L);
+
+        // Then
+        assertFalse(result.isEnabled());
+        verify(principalCache).evictUser(1L);
+        verify(tokenProvider).blacklistAllTokens("testuser");
+    }
 }